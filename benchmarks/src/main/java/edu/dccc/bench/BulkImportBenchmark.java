@@ -0,0 +1,83 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskBulkImporter;
+import edu.dccc.taskmanagerapp.TaskStore;
+import edu.dccc.utils.CSVReaderWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging many per-team CSV files into one TaskStore: a loop that loads the
+ * files one after the other, against {@link TaskBulkImporter} (a virtual
+ * thread per file, batched writes). Each file repeats the same ids, so both
+ * sides renumber every file after the first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkImportBenchmark {
+
+    @Param({"24"})
+    private int files;
+
+    @Param({"20000"})
+    private int rowsPerFile;
+
+    private Path dir;
+    private List<Path> paths;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("import-bench");
+        paths = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            Path file = dir.resolve("team" + i + ".csv");
+            new TaskDataGenerator(i).writeCSV(file, rowsPerFile);
+            paths.add(file);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        for (Path file : paths) Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public TaskStore sequential() {
+        TaskStore store = new TaskStore();
+        for (Path file : paths) {
+            List<Task> rows = new ArrayList<>();
+            new CSVReaderWriter<>(file.toString(), rows, Task::new).loadFromCSV(true);
+            BitSet fileIds = new BitSet();
+            for (Task task : rows) fileIds.set(task.getTaskId());
+            for (Task task : rows) {
+                if (store.get(task.getTaskId()) == null) continue;
+                int fresh;
+                do {
+                    fresh = store.nextId();
+                } while (fileIds.get(fresh));
+                task.setTaskId(fresh);
+            }
+            store.upsertAll(rows);
+        }
+        return store;
+    }
+
+    @Benchmark
+    public TaskBulkImporter.Report pipeline() throws InterruptedException {
+        return new TaskBulkImporter(new TaskStore())
+                .conflictPolicy(TaskBulkImporter.ConflictPolicy.RENUMBER)
+                .importFiles(paths);
+    }
+}
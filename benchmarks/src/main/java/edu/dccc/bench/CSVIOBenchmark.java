@@ -0,0 +1,59 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.utils.CSVReaderWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential CSV load and sorted save, the two calls the app makes on every start and edit.
+ * The 10M case needs a large heap: {@code -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CSVIOBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    private Path input;
+    private Path output;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        input = Files.createTempFile("tasks-bench", ".csv");
+        output = Files.createTempFile("tasks-bench-out", ".csv");
+        new TaskDataGenerator(42).writeCSV(input, rows);
+        tasks = new TaskDataGenerator(42).generate(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public Collection<Task> loadFromCSV() {
+        // Same target collection type the controller used
+        PriorityQueue<Task> queue = new PriorityQueue<>();
+        new CSVReaderWriter<>(input.toString(), queue, Task::new).loadFromCSV(true);
+        return queue;
+    }
+
+    @Benchmark
+    public void saveToCSVSorted() {
+        new CSVReaderWriter<>(output.toString(), tasks, Task::new).saveToCSVSorted(TaskDataGenerator.HEADER);
+    }
+}
@@ -0,0 +1,60 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskColumns;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retained heap of N tasks as Task objects vs in {@link TaskColumns}.
+ * Not a JMH benchmark: it measures bytes, not time. Run it alone, with a
+ * heap big enough for the object model, e.g.
+ * <pre>
+ *   java -Xmx8g -cp target/benchmarks.jar edu.dccc.bench.ColumnarMemoryReport 10000000
+ * </pre>
+ */
+public class ColumnarMemoryReport {
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long base = usedHeap();
+        List<Task> objects = new ArrayList<>(count);
+        TaskDataGenerator generator = new TaskDataGenerator(42);
+        for (int i = 0; i < count; i++) objects.add(generator.next());
+        long objectBytes = usedHeap() - base;
+        Reference.reachabilityFence(objects); // Otherwise the JIT may let the list die before it is measured
+        report("Task objects (ArrayList)", count, objectBytes);
+        objects = null;
+
+        base = usedHeap();
+        TaskColumns columns = new TaskColumns(count);
+        generator = new TaskDataGenerator(42);
+        for (int i = 0; i < count; i++) columns.put(generator.next());
+        long columnBytes = usedHeap() - base;
+        Reference.reachabilityFence(columns);
+        report("TaskColumns", count, columnBytes);
+
+        System.out.printf("Columns use %.1f%% of the object model's heap (%d distinct subjects)%n",
+                100.0 * columnBytes / objectBytes, columns.distinctSubjects());
+    }
+
+    private static void report(String label, int count, long bytes) {
+        System.out.printf("%-26s %,14d bytes  %6.1f bytes/task%n", label, bytes, (double) bytes / count);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
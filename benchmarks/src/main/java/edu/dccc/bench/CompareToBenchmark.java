@@ -0,0 +1,38 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Task.compareTo under a full sort, the core of every sorted save. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CompareToBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskDataGenerator(42).generate(size);
+        Collections.shuffle(tasks, new Random(7));
+    }
+
+    @Benchmark
+    public List<Task> sort() {
+        List<Task> copy = new ArrayList<>(tasks);
+        Collections.sort(copy);
+        return copy;
+    }
+}
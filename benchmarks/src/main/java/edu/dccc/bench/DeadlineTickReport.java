@@ -0,0 +1,112 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.DeadlineScheduler;
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskStore;
+import edu.dccc.utils.LatencyHistogram;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Lets simulated days pass over a large store and compares the
+ * {@link DeadlineScheduler}'s daily tick with polling: scanning every task
+ * once a day for the ones that just became due soon or overdue.
+ * <p>
+ * The generated due dates spread over about two years from 2024-01-01, the
+ * day the simulation starts, so every day some tasks cross a threshold. The
+ * scheduler also escalates (due tomorrow: HIGH, overdue: URGENT) through the
+ * store; the scan only finds the tasks. Not a JMH benchmark, e.g.
+ * <pre>
+ *   java -cp target/benchmarks.jar edu.dccc.bench.DeadlineTickReport 500000 800
+ * </pre>
+ * Arguments: tasks, days.
+ */
+public class DeadlineTickReport {
+
+    /** A clock the simulation moves by hand. */
+    private static final class DayClock extends Clock {
+        LocalDate day;
+
+        DayClock(LocalDate day) { this.day = day; }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+
+        @Override public Clock withZone(ZoneId zone) { return this; }
+
+        @Override public Instant instant() { return day.atTime(12, 0).toInstant(ZoneOffset.UTC); }
+    }
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 500_000;
+        int days = (args.length > 1) ? Integer.parseInt(args[1]) : 800;
+        LocalDate first = LocalDate.of(2024, 1, 1);
+
+        List<Task> tasks = new TaskDataGenerator(42).generate(count);
+        DayClock clock = new DayClock(first);
+        TaskStore store = new TaskStore(tasks, clock);
+        DeadlineScheduler scheduler = new DeadlineScheduler(store, clock)
+                .dueSoon(3)
+                .escalate(1, Task.Priority.HIGH)
+                .escalate(-1, Task.Priority.URGENT);
+
+        long start = System.nanoTime();
+        scheduler.scheduleAll(store.snapshot());
+        long scheduled = System.nanoTime() - start;
+        System.out.printf("%,d tasks: scheduled %,d wheel entries in %d ms%n",
+                count, scheduler.pending(), scheduled / 1_000_000);
+
+        // --- Scheduler: one tick per day, plus idle ticks as a UI timer would make ---
+        LatencyHistogram ticks = new LatencyHistogram();
+        LatencyHistogram idle = new LatencyHistogram();
+        long events = 0;
+        long escalated = 0;
+        for (int d = 0; d < days; d++) {
+            clock.day = first.plusDays(d);
+            long t = System.nanoTime();
+            List<DeadlineScheduler.DeadlineEvent> fired = scheduler.tick();
+            ticks.recordSince(t);
+            events += fired.size();
+            for (DeadlineScheduler.DeadlineEvent event : fired) {
+                if (event.kind() == DeadlineScheduler.Kind.ESCALATED) escalated++;
+            }
+            for (int i = 0; i < 10; i++) {
+                t = System.nanoTime();
+                scheduler.tick();
+                idle.recordSince(t);
+            }
+        }
+        System.out.printf("Wheel: %,d events (%,d escalations) over %d days%n", events, escalated, days);
+        print("  day tick", ticks);
+        print("  idle tick", idle);
+
+        // --- Polling: scan every task once per day ---
+        LatencyHistogram scans = new LatencyHistogram();
+        List<Task> all = store.snapshot();
+        long found = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate today = first.plusDays(d);
+            LocalDate soon = today.plusDays(3);
+            LocalDate yesterday = today.minusDays(1);
+            long t = System.nanoTime();
+            for (Task task : all) {
+                LocalDate due = task.getDueDate();
+                if (due == null || task.getStatus() == Task.TaskStatus.COMPLETED) continue;
+                if (due.equals(soon) || due.equals(yesterday)) found++;
+            }
+            scans.recordSince(t);
+        }
+        System.out.printf("Scan: %,d hits over %d days%n", found, days);
+        print("  day scan", scans);
+    }
+
+    private static void print(String label, LatencyHistogram histogram) {
+        System.out.printf("%s: mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", label,
+                histogram.meanNanos() / 1e6, histogram.percentileNanos(0.5) / 1e6,
+                histogram.percentileNanos(0.99) / 1e6, histogram.maxNanos() / 1e6);
+    }
+}
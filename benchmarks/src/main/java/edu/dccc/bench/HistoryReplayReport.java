@@ -0,0 +1,121 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskHistory;
+import edu.dccc.taskmanagerapp.TaskStore;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Records an editing session through a {@link TaskHistory}, then replays it
+ * against fresh stores built from the same generated tasks: a repeatable
+ * measure of the store's write path (modify, upsert, delete and their index
+ * updates). Also times undoing and redoing the whole session, estimates the
+ * history's memory per edit, and checks that the replays end up identical to
+ * the original. Not a JMH benchmark, e.g.
+ * <pre>
+ *   java -cp target/benchmarks.jar edu.dccc.bench.HistoryReplayReport 200000 100000
+ * </pre>
+ * Arguments: edits, tasks. The session is 90% one- or two-field edits, 5%
+ * creates and 5% deletes, with every 100th step a grouped bulk edit of 50
+ * tasks.
+ */
+public class HistoryReplayReport {
+
+    public static void main(String[] args) {
+        int edits = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+        int tasks = (args.length > 1) ? Integer.parseInt(args[1]) : 100_000;
+
+        TaskStore store = new TaskStore(new TaskDataGenerator(42).generate(tasks));
+        long heapBefore = usedHeap();
+        TaskHistory history = new TaskHistory(store, Integer.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(7);
+
+        long start = System.nanoTime();
+        for (int step = 0; step < edits; step++) {
+            if (step % 100 == 99) {
+                history.group("bulk", () -> {
+                    for (int i = 0; i < 50; i++) edit(history, random, tasks);
+                });
+            } else {
+                edit(history, random, tasks);
+            }
+        }
+        long recorded = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+        List<TaskHistory.Command> session = history.commands();
+        List<String> expected = contents(store);
+
+        System.out.printf("%,d tasks; session of %,d commands, %,d edits recorded in %d ms (%,.0f edits/s)%n",
+                tasks, session.size(), history.size(), recorded / 1_000_000, history.size() / (recorded / 1e9));
+        System.out.printf("History memory: about %,d bytes per edit%n",
+                Math.max(0, heapAfter - heapBefore) / Math.max(1, history.size()));
+
+        // --- Replay against fresh stores ---
+        for (int round = 0; round < 5; round++) {
+            TaskStore fresh = new TaskStore(new TaskDataGenerator(42).generate(tasks));
+            start = System.nanoTime();
+            TaskHistory.replay(session, fresh);
+            long elapsed = System.nanoTime() - start;
+            boolean same = contents(fresh).equals(expected);
+            System.out.printf("Replay %d: %d ms (%,.0f edits/s)%s%n", round + 1, elapsed / 1_000_000,
+                    history.size() / (elapsed / 1e9), same ? "" : "  DIFFERENT RESULT");
+        }
+
+        // --- Undo everything, then redo it ---
+        start = System.nanoTime();
+        int steps = 0;
+        while (history.canUndo()) {
+            history.undo();
+            steps++;
+        }
+        long undone = System.nanoTime() - start;
+        boolean original = contents(store).equals(contents(new TaskStore(new TaskDataGenerator(42).generate(tasks))));
+        start = System.nanoTime();
+        while (history.canRedo()) history.redo();
+        long redone = System.nanoTime() - start;
+        System.out.printf("Undo all %,d commands: %d ms%s; redo all: %d ms%s%n", steps,
+                undone / 1_000_000, original ? "" : " (NOT BACK TO THE START)",
+                redone / 1_000_000, contents(store).equals(expected) ? "" : " (NOT BACK TO THE END)");
+    }
+
+    private static void edit(TaskHistory history, SplittableRandom random, int tasks) {
+        int roll = random.nextInt(100);
+        int id = 1 + random.nextInt(tasks);
+        if (roll < 5) {
+            history.create(new Task(0, "new task " + random.nextInt(1000), Task.Priority.NORMAL,
+                    LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1).plusDays(random.nextInt(300))));
+        } else if (roll < 10) {
+            history.delete(id);
+        } else {
+            int field = random.nextInt(4);
+            int value = random.nextInt(1000);
+            history.update(id, task -> {
+                switch (field) {
+                    case 0 -> task.setSubject("Edited subject " + value);
+                    case 1 -> task.setPriority(Task.Priority.values()[value % 4]);
+                    case 2 -> task.setStatus(Task.TaskStatus.values()[value % 3]);
+                    default -> {
+                        task.setDueDate(LocalDate.of(2025, 1, 1).plusDays(value));
+                        task.setPriority(Task.Priority.HIGH);
+                    }
+                }
+            });
+        }
+    }
+
+    private static List<String> contents(TaskStore store) {
+        List<Task> all = store.snapshot();
+        all.sort(Comparator.comparingInt(Task::getTaskId));
+        return all.stream().map(Task::toCSV).toList();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,105 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskFilter;
+import edu.dccc.taskmanagerapp.TaskQuery;
+import edu.dccc.taskmanagerapp.TaskStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The on-call query "URGENT, not COMPLETED, due in the next 7 days" over a
+ * million tasks: a linear predicate scan against the store's secondary indexes.
+ * The hide-completed view and a repeated search are also run as cached
+ * {@link TaskQuery}s, with and without an edit in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexQueryBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<Task> tasks;
+    private TaskStore store;
+    private TaskFilter onCall;
+    private TaskFilter urgentOpen;
+    private TaskFilter open;
+    private TaskQuery search;
+    private int edits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskDataGenerator(42).generate(size);
+        store = new TaskStore(tasks);
+        // The generated start dates span 2024-2025
+        LocalDate today = LocalDate.of(2025, 6, 1);
+        onCall = new TaskFilter()
+                .priorities(Task.Priority.URGENT)
+                .excludeStatus(Task.TaskStatus.COMPLETED)
+                .dueBetween(today, today.plusDays(7));
+        urgentOpen = new TaskFilter()
+                .priorities(Task.Priority.URGENT)
+                .excludeStatus(Task.TaskStatus.COMPLETED);
+        open = new TaskFilter().excludeStatus(Task.TaskStatus.COMPLETED);
+        search = TaskQuery.of(null, "report");
+    }
+
+    @Benchmark
+    public void onCallScan(Blackhole bh) {
+        for (Task task : tasks) bh.consume(onCall.matches(task));
+    }
+
+    @Benchmark
+    public Object onCallIndexed() {
+        return store.find(onCall);
+    }
+
+    @Benchmark
+    public void urgentOpenScan(Blackhole bh) {
+        for (Task task : tasks) bh.consume(urgentOpen.matches(task));
+    }
+
+    /** No date range: answered by ANDing the enum bitmaps. */
+    @Benchmark
+    public Object urgentOpenIndexed() {
+        return store.find(urgentOpen);
+    }
+
+    @Benchmark
+    public Object hideCompletedIndexed() {
+        return store.find(open);
+    }
+
+    /** The chkHideCompleted toggle: a copy of the cached id set. */
+    @Benchmark
+    public Object hideCompletedCached() {
+        return store.find(TaskQuery.HIDE_COMPLETED);
+    }
+
+    @Benchmark
+    public Object searchIndexed() {
+        return store.search("report");
+    }
+
+    @Benchmark
+    public Object searchCached() {
+        return store.find(search);
+    }
+
+    /** An edit re-tests one task per cached view instead of dropping the results. */
+    @Benchmark
+    public Object searchCachedAfterEdit() {
+        int id = 1 + (edits++ % size);
+        store.modify(id, task -> task.setSubject((edits % 2 == 0) ? "Submit report" : "Plan budget"));
+        return store.find(search);
+    }
+}
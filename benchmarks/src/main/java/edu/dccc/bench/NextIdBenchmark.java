@@ -0,0 +1,55 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.utils.IdAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id allocation per insert: the old stream over the whole queue in
+ * TaskManagerController.generateNextId(), against the seeded IdAllocator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NextIdBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private PriorityQueue<Task> taskQueue;
+    private IdAllocator allocator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskQueue = new PriorityQueue<>(new TaskDataGenerator(42).generate(size));
+        allocator = new IdAllocator();
+        for (Task task : taskQueue) allocator.claim(task.getTaskId());
+    }
+
+    @Benchmark
+    public int streamMax() {
+        return taskQueue.stream()
+                .mapToInt(Task::getTaskId)
+                .max()
+                .orElse(0) + 1;
+    }
+
+    @Benchmark
+    public int allocatorNext() {
+        return allocator.next();
+    }
+
+    /** Seeding cost, paid once per load. */
+    @Benchmark
+    public IdAllocator allocatorSeed() {
+        IdAllocator ids = new IdAllocator();
+        for (Task task : taskQueue) ids.claim(task.getTaskId());
+        return ids;
+    }
+}
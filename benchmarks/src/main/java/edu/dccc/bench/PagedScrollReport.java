@@ -0,0 +1,80 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.PagedTaskList;
+import edu.dccc.taskmanagerapp.Task;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * What a TableView does to a {@link PagedTaskList}: read a viewport of rows
+ * per frame while scrolling, and while jumping around with the scrollbar.
+ * Not a JMH benchmark: it reports frame-time percentiles, page loads and the
+ * heap in use. The CSV is generated on first run and reused, e.g.
+ * <pre>
+ *   java -Xmx256m -cp target/benchmarks.jar edu.dccc.bench.PagedScrollReport 50000000 /tmp/tasks-50m.csv
+ * </pre>
+ */
+public class PagedScrollReport {
+
+    private static final int VIEWPORT = 40;
+
+    public static void main(String[] args) throws Exception {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000_000;
+        Path csv = Path.of((args.length > 1) ? args[1] : "tasks-paged.csv");
+        if (!Files.exists(csv)) {
+            System.out.printf("Writing %,d rows to %s...%n", rows, csv);
+            new TaskDataGenerator(42).writeCSV(csv, rows);
+        }
+        Files.deleteIfExists(csv.resolveSibling(csv.getFileName() + ".pages"));
+
+        long start = System.nanoTime();
+        try (PagedTaskList list = new PagedTaskList(csv)) {
+            System.out.printf("Index built: %,d rows in %d ms%n", list.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        start = System.nanoTime();
+        try (PagedTaskList list = new PagedTaskList(csv)) {
+            System.out.printf("Index reopened in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+            // Wheel scrolling: 3 rows per frame over the first 200k rows
+            int frames = 200_000 / 3;
+            long[] times = new long[frames];
+            for (int f = 0; f < frames; f++) {
+                times[f] = frame(list, f * 3);
+            }
+            report("scroll", times, list);
+
+            // Scrollbar drags: land anywhere in the file
+            Random random = new Random(42);
+            times = new long[2_000];
+            for (int f = 0; f < times.length; f++) {
+                times[f] = frame(list, random.nextInt(list.size() - VIEWPORT));
+            }
+            report("jump", times, list);
+        }
+    }
+
+    private static long frame(PagedTaskList list, int top) {
+        long t = System.nanoTime();
+        int hash = 0;
+        for (int i = top; i < top + VIEWPORT; i++) {
+            Task task = list.get(i);
+            hash += task.getTaskId();
+        }
+        if (hash == 42) System.out.print(""); // Keep the reads
+        return System.nanoTime() - t;
+    }
+
+    private static void report(String label, long[] times, PagedTaskList list) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%-7s %,7d frames  p50 %6.3f ms  p99 %6.3f ms  max %7.3f ms  pages loaded %,d  cached %d  views %d  heap %,d KB%n",
+                label, times.length, sorted[times.length / 2] / 1e6, sorted[times.length * 99 / 100] / 1e6,
+                sorted[times.length - 1] / 1e6, list.pageLoads(), list.cachedPages(), list.cachedViews(),
+                (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+    }
+}
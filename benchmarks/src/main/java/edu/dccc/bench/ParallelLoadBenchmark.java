@@ -0,0 +1,77 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.utils.CSVReaderWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory-mapped parallel load at increasing worker counts, to show how it scales
+ * with cores. workers = 0 runs the sequential loader as the baseline.
+ * Setup checks that both loaders produce the same tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ParallelLoadBenchmark {
+
+    @Param({"2000000"})
+    private int rows;
+
+    @Param({"0", "1", "2", "4", "8", "16"})
+    private int workers;
+
+    private Path input;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        input = Files.createTempFile("tasks-bench", ".csv");
+        new TaskDataGenerator(42).writeCSV(input, rows);
+        if (workers > 0) {
+            pool = new ForkJoinPool(workers);
+            if (!sortedCSV(load()).equals(sortedCSV(loadSequential()))) {
+                throw new IllegalStateException("Parallel load differs from sequential load");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (pool != null) pool.shutdown();
+        Files.deleteIfExists(input);
+    }
+
+    @Benchmark
+    public Collection<Task> load() {
+        if (workers == 0) return loadSequential();
+        PriorityQueue<Task> queue = new PriorityQueue<>();
+        new CSVReaderWriter<>(input.toString(), queue, Task::new).loadFromCSVParallel(true, pool);
+        return queue;
+    }
+
+    private Collection<Task> loadSequential() {
+        PriorityQueue<Task> queue = new PriorityQueue<>();
+        new CSVReaderWriter<>(input.toString(), queue, Task::new).loadFromCSV(true);
+        return queue;
+    }
+
+    // Heap layouts may differ, so compare the content in a fixed order
+    private static List<String> sortedCSV(Collection<Task> tasks) {
+        List<String> lines = new ArrayList<>(tasks.size());
+        for (Task task : tasks) lines.add(task.toCSV());
+        lines.sort(null);
+        return lines;
+    }
+}
@@ -0,0 +1,83 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.utils.IndexedPriorityQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap operations at steady size. Each benchmark puts back what it takes out,
+ * so the queue size stays at {@code size} for the whole run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+    @Param({"10000", "500000"})
+    private int size;
+
+    private PriorityQueue<Task> queue;
+    private IndexedPriorityQueue<Task> indexed;
+    private Task[] queued;
+    private Task[] extra;
+    private SplittableRandom random;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TaskDataGenerator generator = new TaskDataGenerator(42);
+        List<Task> tasks = generator.generate(size);
+        queued = tasks.toArray(new Task[0]);
+        extra = generator.generate(1024).toArray(new Task[0]);
+        queue = new PriorityQueue<>(tasks);
+        indexed = new IndexedPriorityQueue<>(Task::getTaskId);
+        indexed.addAll(tasks);
+        random = new SplittableRandom(7);
+    }
+
+    private Task nextExtra() {
+        next = (next + 1) & (extra.length - 1);
+        return extra[next];
+    }
+
+    @Benchmark
+    public Task priorityQueueAddPoll() {
+        queue.add(nextExtra());
+        return queue.poll();
+    }
+
+    @Benchmark
+    public boolean priorityQueueRemove() {
+        // The controller's old update path: O(n) search, then re-insert
+        Task task = queued[random.nextInt(queued.length)];
+        queue.remove(task);
+        return queue.add(task);
+    }
+
+    @Benchmark
+    public Task indexedAddPoll() {
+        indexed.add(nextExtra());
+        return indexed.poll();
+    }
+
+    @Benchmark
+    public boolean indexedRemove() {
+        Task task = queued[random.nextInt(queued.length)];
+        indexed.remove(task);
+        return indexed.add(task);
+    }
+
+    @Benchmark
+    public boolean indexedUpdate() {
+        Task task = queued[random.nextInt(queued.length)];
+        return indexed.update(task);
+    }
+}
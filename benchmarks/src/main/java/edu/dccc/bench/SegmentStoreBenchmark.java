@@ -0,0 +1,71 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.SegmentTaskStore;
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the off-heap {@link SegmentTaskStore} against reading the
+ * binary snapshot onto the heap, for the same tasks. Opening the segment
+ * store maps the files and rebuilds the id table; the snapshot builds a
+ * Task per row. {@code openAndGet} adds one point read, to show the store
+ * is usable as soon as it is open.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class SegmentStoreBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Path dir;
+    private Path segment;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("segment-bench");
+        segment = dir.resolve("tasks.seg");
+        snapshot = dir.resolve("tasks.snapshot");
+        List<Task> tasks = new TaskDataGenerator(42).generate(rows);
+        try (SegmentTaskStore store = new SegmentTaskStore(segment)) {
+            store.addAll(tasks);
+        }
+        TaskSnapshot.write(snapshot, tasks);
+        System.out.printf("%nsegment %,d + %,d bytes, snapshot %,d bytes%n", Files.size(segment),
+                Files.size(dir.resolve("tasks.seg.subjects")), Files.size(snapshot));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public List<Task> loadSnapshot() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        TaskSnapshot.read(snapshot, tasks);
+        return tasks;
+    }
+
+    @Benchmark
+    public Task openAndGet() throws Exception {
+        try (SegmentTaskStore store = new SegmentTaskStore(segment)) {
+            return store.get(rows / 2);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskSnapshot;
+import edu.dccc.utils.CSVReaderWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start load of the binary snapshot against the same tasks in CSV.
+ * Single-shot in fresh forks, so every measurement is a first load in a new JVM.
+ * File sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class SnapshotFormatBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Path csv;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        csv = Files.createTempFile("tasks-bench", ".csv");
+        snapshot = Files.createTempFile("tasks-bench", ".snapshot");
+        new TaskDataGenerator(42).writeCSV(csv, rows);
+        TaskSnapshot.write(snapshot, new TaskDataGenerator(42).generate(rows));
+        System.out.printf("%ncsv %,d bytes, snapshot %,d bytes%n", Files.size(csv), Files.size(snapshot));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public List<Task> loadCSV() {
+        List<Task> tasks = new ArrayList<>();
+        new CSVReaderWriter<>(csv.toString(), tasks, Task::new).loadFromCSV(true);
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> loadSnapshot() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        TaskSnapshot.read(snapshot, tasks);
+        return tasks;
+    }
+}
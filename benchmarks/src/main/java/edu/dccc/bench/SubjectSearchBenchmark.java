@@ -0,0 +1,61 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.utils.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One search keystroke over 1M subjects: the old per-row
+ * {@code toLowerCase().contains()} scan against the trigram index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubjectSearchBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    // Short prefix, common word, rare phrase, no match
+    @Param({"re", "report", "audit, q3", "zebra"})
+    private String query;
+
+    private List<Task> tasks;
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskDataGenerator(42).generate(size);
+        index = new TrigramIndex();
+        for (Task task : tasks) index.put(task.getTaskId(), task.getSubject());
+    }
+
+    @Benchmark
+    public void scanLowerCase(Blackhole bh) {
+        String needle = query.toLowerCase();
+        for (Task task : tasks) bh.consume(task.getSubject().toLowerCase().contains(needle));
+    }
+
+    @Benchmark
+    public void indexSearch(Blackhole bh) {
+        bh.consume(index.search(query));
+    }
+
+    /** Cost of the index build done by the loader, per load. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public TrigramIndex buildIndex() {
+        TrigramIndex fresh = new TrigramIndex();
+        for (Task task : tasks) fresh.put(task.getTaskId(), task.getSubject());
+        return fresh;
+    }
+}
@@ -0,0 +1,211 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskCells;
+import edu.dccc.taskmanagerapp.TaskManagerApplication;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.scene.Scene;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Scroll frame times of the task table with the old inline-style cells
+ * (PropertyValueFactory plus {@code setStyle} in every {@code updateItem})
+ * against {@link TaskCells} (getters plus pseudo-classes).
+ * <p>
+ * Not a JMH benchmark: it opens a window, scrolls 3 rows per pulse through
+ * the table and times each pulse's CSS and layout pass, which is where cells
+ * are updated and restyled. Each variant runs twice and only the second run
+ * is reported. Needs a display, e.g.
+ * <pre>
+ *   java -cp target/benchmarks.jar edu.dccc.bench.TableScrollReport 200000
+ * </pre>
+ */
+public class TableScrollReport extends Application {
+
+    private static final int ROWS_PER_FRAME = 3;
+    private static final int FRAMES = 3_000;
+
+    private List<Task> tasks;
+    private final Queue<Boolean> runs = new ArrayDeque<>(List.of(false, true, false, true));
+    private int run;
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage stage) {
+        List<String> args = getParameters().getRaw();
+        int rows = args.isEmpty() ? 200_000 : Integer.parseInt(args.get(0));
+        tasks = new TaskDataGenerator(42).generate(rows);
+        stage.setTitle("Table scroll report");
+        next(stage);
+    }
+
+    private void next(Stage stage) {
+        Boolean pseudo = runs.poll();
+        if (pseudo == null) {
+            Platform.exit();
+            return;
+        }
+        boolean reported = run++ >= 2;
+
+        TableView<Task> table = pseudo ? fastTable() : inlineTable();
+        table.setItems(FXCollections.observableArrayList(tasks));
+        Scene scene = new Scene(table, 920, 700);
+        scene.getStylesheets().add(TaskManagerApplication.class.getResource("style.css").toExternalForm());
+        stage.setScene(scene);
+        stage.show();
+
+        long[] pulses = new long[FRAMES];
+        long[] started = new long[1];
+        int[] frame = {-1};
+        scene.addPreLayoutPulseListener(() -> started[0] = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> {
+            if (frame[0] >= 0 && frame[0] < FRAMES) pulses[frame[0]] = System.nanoTime() - started[0];
+        });
+
+        new AnimationTimer() {
+            long first;
+
+            @Override
+            public void handle(long now) {
+                if (first == 0) first = now;
+                frame[0]++;
+                if (frame[0] < FRAMES) {
+                    table.scrollTo((frame[0] * ROWS_PER_FRAME) % tasks.size());
+                    return;
+                }
+                stop();
+                if (reported) {
+                    report(pseudo ? "pseudo-class" : "inline style", pulses, now - first);
+                }
+                Platform.runLater(() -> next(stage));
+            }
+        }.start();
+    }
+
+    private static void report(String name, long[] pulses, long elapsed) {
+        long[] sorted = pulses.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-13s css+layout per frame: p50 %.3f ms, p99 %.3f ms, max %.3f ms; %.1f fps%n",
+                name, sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 99 / 100] / 1e6,
+                sorted[sorted.length - 1] / 1e6, FRAMES / (elapsed / 1e9));
+    }
+
+    // --- The two table set-ups ---
+
+    private static TableView<Task> fastTable() {
+        TableView<Task> table = new TableView<>();
+        TableColumn<Task, Integer> id = new TableColumn<>("ID");
+        id.setCellValueFactory(TaskCells.value(Task::getTaskId));
+        TableColumn<Task, String> subject = new TableColumn<>("Subject");
+        subject.setCellValueFactory(TaskCells.value(Task::getSubject));
+        TableColumn<Task, Task.Priority> priority = new TableColumn<>("Priority");
+        priority.setCellValueFactory(TaskCells.value(Task::getPriority));
+        priority.setCellFactory(TaskCells::priorityCell);
+        TableColumn<Task, Task.TaskStatus> status = new TableColumn<>("Status");
+        status.setCellValueFactory(TaskCells.value(Task::getStatus));
+        status.setCellFactory(TaskCells::statusCell);
+        TableColumn<Task, LocalDate> startDate = new TableColumn<>("Start");
+        startDate.setCellValueFactory(TaskCells.value(Task::getStartDate));
+        startDate.setCellFactory(TaskCells::dateCell);
+        TableColumn<Task, LocalDate> dueDate = new TableColumn<>("Due");
+        dueDate.setCellValueFactory(TaskCells.value(Task::getDueDate));
+        dueDate.setCellFactory(TaskCells::dateCell);
+        TableColumn<Task, LocalDate> completedDate = new TableColumn<>("Completed");
+        completedDate.setCellValueFactory(TaskCells.value(Task::getCompletedDate));
+        completedDate.setCellFactory(TaskCells::dateCell);
+        table.getColumns().addAll(List.of(id, subject, priority, status, startDate, dueDate, completedDate));
+        return table;
+    }
+
+    /** The table as it was before TaskCells. */
+    private static TableView<Task> inlineTable() {
+        TableView<Task> table = new TableView<>();
+        TableColumn<Task, Integer> id = new TableColumn<>("ID");
+        id.setCellValueFactory(new PropertyValueFactory<>("taskId"));
+        TableColumn<Task, String> subject = new TableColumn<>("Subject");
+        subject.setCellValueFactory(new PropertyValueFactory<>("subject"));
+        TableColumn<Task, Task.Priority> priority = new TableColumn<>("Priority");
+        priority.setCellValueFactory(new PropertyValueFactory<>("priority"));
+        priority.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(Task.Priority item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    setStyle("");
+                } else {
+                    setText(item.toString());
+                    switch (item) {
+                        case URGENT -> setStyle("-fx-text-fill: #c0392b; -fx-font-weight: bold; -fx-background-color: #fdf2f2;");
+                        case HIGH -> setStyle("-fx-text-fill: #2980b9; -fx-font-weight: bold;");
+                        case NORMAL -> setStyle("-fx-text-fill: #2c3e50;");
+                        case LOW -> setStyle("-fx-text-fill: #bdc3c7;");
+                    }
+                }
+            }
+        });
+        TableColumn<Task, Task.TaskStatus> status = new TableColumn<>("Status");
+        status.setCellValueFactory(new PropertyValueFactory<>("status"));
+        status.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(Task.TaskStatus item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    setStyle("");
+                } else {
+                    setText(item.toString().replace("_", " "));
+                    if (item == Task.TaskStatus.COMPLETED) setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
+                    else if (item == Task.TaskStatus.IN_PROGRESS) setStyle("-fx-text-fill: #2980b9;");
+                    else setStyle("-fx-text-fill: #7f8c8d;");
+                }
+            }
+        });
+        TableColumn<Task, LocalDate> startDate = new TableColumn<>("Start");
+        startDate.setCellValueFactory(new PropertyValueFactory<>("startDate"));
+        startDate.setCellFactory(TableScrollReport::inlineDateCell);
+        TableColumn<Task, LocalDate> dueDate = new TableColumn<>("Due");
+        dueDate.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
+        dueDate.setCellFactory(TableScrollReport::inlineDateCell);
+        TableColumn<Task, LocalDate> completedDate = new TableColumn<>("Completed");
+        completedDate.setCellValueFactory(new PropertyValueFactory<>("completedDate"));
+        completedDate.setCellFactory(TableScrollReport::inlineDateCell);
+        table.getColumns().addAll(List.of(id, subject, priority, status, startDate, dueDate, completedDate));
+        return table;
+    }
+
+    private static TableCell<Task, LocalDate> inlineDateCell(TableColumn<Task, LocalDate> col) {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(LocalDate item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty) {
+                    setText(null);
+                    setStyle("");
+                } else if (item == null) {
+                    setText("TBD");
+                    setStyle("-fx-text-fill: #bdc3c7; -fx-font-style: italic; -fx-font-size: 11px;");
+                } else {
+                    setText(item.toString());
+                    setStyle("-fx-text-fill: #2c3e50; -fx-font-style: normal; -fx-font-size: 11px;");
+                }
+            }
+        };
+    }
+}
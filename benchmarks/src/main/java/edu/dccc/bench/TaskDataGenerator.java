@@ -0,0 +1,90 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic task data for the benchmarks.
+ * Distributions roughly follow what real exports look like: most work is
+ * NORMAL, urgent work is rare, about a third is done, and a few tasks have
+ * no due date. Some subjects contain commas so the CSV quoting path is hit.
+ */
+public class TaskDataGenerator {
+
+    public static final String HEADER = "ID,Subject,Priority,Status,StartDate,DueDate, CompletedDate";
+
+    private static final String[] VERBS = {
+            "Fix", "Review", "Prepare", "Update", "Submit", "Migrate", "Test", "Document", "Plan", "Resolve"
+    };
+    private static final String[] NOUNS = {
+            "login page bug", "quarterly report", "server maintenance", "client presentation",
+            "tax documents", "release notes", "database backup", "customer tickets",
+            "onboarding guide", "budget forecast", "security audit", "board slides"
+    };
+    private static final LocalDate EPOCH = LocalDate.of(2024, 1, 1);
+
+    private final SplittableRandom random;
+    private int nextId = 1;
+
+    public TaskDataGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public Task next() {
+        Task.Priority priority = pickPriority();
+        Task.TaskStatus status = pickStatus();
+        LocalDate start = EPOCH.plusDays(random.nextInt(730));
+        LocalDate due = (random.nextInt(100) < 5) ? null : start.plusDays(1 + random.nextInt(60));
+        LocalDate completed = (status == Task.TaskStatus.COMPLETED) ? start.plusDays(random.nextInt(45)) : null;
+        return new Task(nextId++, subject(), priority, status, start, due, completed);
+    }
+
+    public List<Task> generate(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) tasks.add(next());
+        return tasks;
+    }
+
+    /** Writes {@code count} tasks in the same layout as tasks.csv. */
+    public void writeCSV(Path file, int count) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (int i = 0; i < count; i++) {
+                out.write(next().toCSV());
+                out.newLine();
+            }
+        }
+    }
+
+    private Task.Priority pickPriority() {
+        int roll = random.nextInt(100);
+        if (roll < 5) return Task.Priority.URGENT;
+        if (roll < 25) return Task.Priority.HIGH;
+        if (roll < 75) return Task.Priority.NORMAL;
+        return Task.Priority.LOW;
+    }
+
+    private Task.TaskStatus pickStatus() {
+        int roll = random.nextInt(100);
+        if (roll < 40) return Task.TaskStatus.NOT_STARTED;
+        if (roll < 65) return Task.TaskStatus.IN_PROGRESS;
+        return Task.TaskStatus.COMPLETED;
+    }
+
+    private String subject() {
+        String subject = VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+        // One in ten subjects carries a comma, like "Review budget forecast, Q3"
+        if (random.nextInt(10) == 0) subject += ", Q" + (1 + random.nextInt(4));
+        return subject;
+    }
+}
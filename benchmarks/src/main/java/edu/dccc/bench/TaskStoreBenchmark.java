@@ -0,0 +1,81 @@
+package edu.dccc.bench;
+
+import edu.dccc.taskmanagerapp.Task;
+import edu.dccc.taskmanagerapp.TaskStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless throughput of TaskStore under concurrent use: readers doing point
+ * lookups and top-N scans while a writer keeps editing, plus parallel writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskStoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private TaskStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Task> tasks = new TaskDataGenerator(42).generate(size);
+        store = new TaskStore(tasks);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+        final Task.Priority[] priorities = Task.Priority.values();
+    }
+
+    // --- Mixed: 3 readers, 1 writer ---
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Task mixedGet(Cursor cursor) {
+        return store.get(1 + cursor.random.nextInt(size));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Task mixedModify(Cursor cursor) {
+        Task.Priority priority = cursor.priorities[cursor.random.nextInt(cursor.priorities.length)];
+        return store.modify(1 + cursor.random.nextInt(size), task -> task.setPriority(priority));
+    }
+
+    @Benchmark
+    @Group("dashboard")
+    @GroupThreads(3)
+    public List<Task> dashboardTop() {
+        return store.top(50);
+    }
+
+    @Benchmark
+    @Group("dashboard")
+    @GroupThreads(1)
+    public Task dashboardModify(Cursor cursor) {
+        Task.Priority priority = cursor.priorities[cursor.random.nextInt(cursor.priorities.length)];
+        return store.modify(1 + cursor.random.nextInt(size), task -> task.setPriority(priority));
+    }
+
+    // --- Writers only ---
+
+    @Benchmark
+    @Threads(4)
+    public Task parallelUpsert(Cursor cursor) {
+        int id = 1 + cursor.random.nextInt(size);
+        return store.upsert(new Task(id, "Bench edit", Task.Priority.HIGH, Task.TaskStatus.IN_PROGRESS,
+                null, null, null));
+    }
+}
@@ -0,0 +1,243 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.Metrics;
+import edu.dccc.utils.TimingWheel;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches due dates: tells listeners when tasks become due soon or overdue,
+ * and raises the priority of tasks as their due date approaches.
+ * <p>
+ * Each open task with a due date gets one entry per rule in a
+ * {@link TimingWheel} of days, e.g. "3 days before due", "due tomorrow: at
+ * least HIGH", "overdue: URGENT". {@link #tick()} advances the wheel to today
+ * and only sees the entries for the days that passed, so a tick costs O(1)
+ * plus the tasks it concerns, never a scan of the store. Escalations are
+ * written with one {@link TaskStore#modifyAll} call, which moves each task
+ * within the heap (O(log n)) instead of rebuilding it.
+ * <p>
+ * The scheduler does not see edits made to the store directly: call
+ * {@link #schedule} after a task is added or edited and {@link #cancel} after
+ * it is deleted. Entries of an edited task are not removed, just ignored
+ * when they fire. An escalation only ever raises a priority, and each rule
+ * fires once per due date, so a user who lowers the priority again keeps it
+ * for the rest of the session. Which rules fired is kept in memory only: after
+ * a restart, {@code scheduleAll} and the first tick fire the past rules again
+ * and re-raise the priority.
+ * <pre>
+ *   DeadlineScheduler deadlines = new DeadlineScheduler(store)
+ *       .dueSoon(3)
+ *       .escalate(1, Task.Priority.HIGH)
+ *       .escalate(-1, Task.Priority.URGENT);
+ *   deadlines.setListener(events -> ...);
+ *   deadlines.scheduleAll(store.snapshot());
+ *   deadlines.start(1, TimeUnit.MINUTES); // Or call tick() from a UI timer
+ * </pre>
+ * Rules must be set before the first task is scheduled. Thread-safe; the
+ * listener is called on the thread that ticked.
+ */
+public class DeadlineScheduler {
+
+    public enum Kind { DUE_SOON, OVERDUE, ESCALATED }
+
+    /** {@code date} is the due date; {@code previous} is the priority before an escalation, null for the other kinds. */
+    public record DeadlineEvent(Kind kind, Task task, LocalDate date, Task.Priority previous) { }
+
+    /** Receives the events of one tick, in one call. */
+    public interface Listener {
+        void deadlines(List<DeadlineEvent> events);
+    }
+
+    /** One entry per task: fires {@code daysBeforeDue} days before the due date (negative: after it). */
+    private record Rule(int daysBeforeDue, Kind kind, Task.Priority atLeast) { }
+
+    /** A task's live wheel entries: their generation and the due epoch day they are for. */
+    private record Scheduled(int generation, long dueDay) { }
+
+    private static final int GENERATION_MASK = 0xFF_FFFF; // Payload: id (32) | generation (24) | rule (8)
+
+    private final TaskStore store;
+    private final Clock clock;
+    private final List<Rule> rules = new ArrayList<>();
+    private final TimingWheel wheel;
+    private final Map<Integer, Scheduled> scheduled = new HashMap<>(); // Only tasks with live entries
+    private int generation; // Bumped per schedule, so stale entries of a cancelled or edited task do not match
+    private boolean frozen; // Rules cannot change once entries refer to them by index
+    private volatile Listener listener;
+    private ScheduledExecutorService timer;
+
+    public DeadlineScheduler(TaskStore store) {
+        this(store, Clock.systemDefaultZone());
+    }
+
+    public DeadlineScheduler(TaskStore store, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+        this.wheel = new TimingWheel(LocalDate.now(clock).toEpochDay());
+        rules.add(new Rule(-1, Kind.OVERDUE, null)); // Always reported
+    }
+
+    // --- Rules ---
+
+    /** Reports {@link Kind#DUE_SOON} this many days before the due date. */
+    public synchronized DeadlineScheduler dueSoon(int days) {
+        return rule(new Rule(days, Kind.DUE_SOON, null));
+    }
+
+    /**
+     * From {@code daysBeforeDue} days before the due date (negative: days
+     * after it), raises the task's priority to at least {@code atLeast}.
+     */
+    public synchronized DeadlineScheduler escalate(int daysBeforeDue, Task.Priority atLeast) {
+        return rule(new Rule(daysBeforeDue, Kind.ESCALATED, atLeast));
+    }
+
+    private DeadlineScheduler rule(Rule rule) {
+        if (frozen) throw new IllegalStateException("Rules must be set before tasks are scheduled");
+        if (rules.size() == 255) throw new IllegalStateException("Too many rules");
+        rules.add(rule);
+        return this;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // --- Tasks ---
+
+    /** Schedules every task; for a freshly loaded store. */
+    public synchronized void scheduleAll(Collection<Task> tasks) {
+        for (Task task : tasks) schedule(task);
+    }
+
+    /**
+     * (Re)schedules a task after it was added or edited. Cheap when the due
+     * date and status did not change; a completed or undated task is
+     * cancelled.
+     */
+    public synchronized void schedule(Task task) {
+        frozen = true;
+        int id = task.getTaskId();
+        LocalDate due = task.getDueDate();
+        if (due == null || task.getStatus() == Task.TaskStatus.COMPLETED) {
+            cancel(id);
+            return;
+        }
+        long day = due.toEpochDay();
+        Scheduled current = scheduled.get(id);
+        if (current != null && current.dueDay() == day) return;
+
+        generation = (generation + 1) & GENERATION_MASK;
+        scheduled.put(id, new Scheduled(generation, day));
+        for (int r = 0; r < rules.size(); r++) {
+            long payload = ((long) id << 32) | ((long) generation << 8) | r;
+            wheel.schedule(day - rules.get(r).daysBeforeDue(), payload);
+        }
+    }
+
+    /** Drops a task's pending entries, e.g. after it was deleted. */
+    public synchronized void cancel(int id) {
+        scheduled.remove(id);
+    }
+
+    /** Wheel entries waiting to fire, including those of edited tasks. */
+    public synchronized int pending() { return wheel.size(); }
+
+    // --- Time ---
+
+    /**
+     * Advances to today: reports what became due soon or overdue since the
+     * last tick and applies escalations. Returns the events, which the
+     * listener has also been given. Cheap when the date has not changed.
+     */
+    public List<DeadlineEvent> tick() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now(clock);
+        List<DeadlineEvent> events = new ArrayList<>();
+        Map<Integer, Task.Priority> escalations = new LinkedHashMap<>();
+        synchronized (this) {
+            wheel.advanceTo(today.toEpochDay(), (day, payload) -> fired(payload, today, events, escalations));
+        }
+        if (!escalations.isEmpty()) escalate(escalations, events);
+        Metrics.latency("deadline.tick").recordSince(started);
+        if (events.isEmpty()) return events;
+
+        Metrics.counter("deadline.events").add(events.size());
+        Listener current = listener;
+        if (current != null) current.deadlines(events);
+        return events;
+    }
+
+    /** Calls {@link #tick()} every {@code period} on a daemon thread, for use without a UI. */
+    public synchronized DeadlineScheduler start(long period, TimeUnit unit) {
+        if (timer != null) return this;
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Keep ticking; the executor would stop at the first exception
+            }
+        }, 0, period, unit);
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (timer != null) timer.shutdownNow();
+        timer = null;
+    }
+
+    private void fired(long payload, LocalDate today, List<DeadlineEvent> events, Map<Integer, Task.Priority> escalations) {
+        int id = (int) (payload >>> 32);
+        Scheduled entry = scheduled.get(id);
+        if (entry == null || entry.generation() != (int) ((payload >>> 8) & GENERATION_MASK)) return; // Edited since
+        Task task = store.get(id);
+        if (task == null || task.getStatus() == Task.TaskStatus.COMPLETED) return;
+
+        Rule rule = rules.get((int) (payload & 0xFF));
+        LocalDate due = LocalDate.ofEpochDay(entry.dueDay());
+        switch (rule.kind()) {
+            case DUE_SOON -> {
+                // A task scheduled when already overdue gets OVERDUE only
+                if (!today.isAfter(due)) events.add(new DeadlineEvent(Kind.DUE_SOON, task, due, null));
+            }
+            case OVERDUE -> events.add(new DeadlineEvent(Kind.OVERDUE, task, due, null));
+            case ESCALATED -> escalations.merge(id, rule.atLeast(), (a, b) -> (a.compareTo(b) <= 0) ? a : b);
+        }
+    }
+
+    private void escalate(Map<Integer, Task.Priority> escalations, List<DeadlineEvent> events) {
+        Map<Integer, Consumer<Task>> changes = new LinkedHashMap<>();
+        Map<Integer, Task.Priority> previous = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Task.Priority> entry : escalations.entrySet()) {
+            Task task = store.get(entry.getKey());
+            Task.Priority target = entry.getValue();
+            if (task == null || task.getPriority().compareTo(target) <= 0) continue; // Already that urgent
+            previous.put(entry.getKey(), task.getPriority());
+            changes.put(entry.getKey(), t -> {
+                if (t.getPriority().compareTo(target) > 0) t.setPriority(target);
+            });
+        }
+        if (changes.isEmpty()) return;
+        for (Task task : store.modifyAll(changes)) {
+            events.add(new DeadlineEvent(Kind.ESCALATED, task, task.getDueDate(), previous.get(task.getTaskId())));
+        }
+        Metrics.counter("deadline.escalations").add(changes.size());
+    }
+}
@@ -0,0 +1,101 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.Metrics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Live view of the {@link Metrics} registry: load/save times, parse errors,
+ * store operations and table refresh latencies, refreshed every second.
+ * "Save report" writes the same table to {@code metrics-<timestamp>.txt} in
+ * the working directory, for users to attach to a bug report.
+ * <p>
+ * The same measurements are Flight Recorder events (category "Task
+ * Manager"), for a timeline: start the app with
+ * {@code -XX:StartFlightRecording=filename=taskmanager.jfr} and open the
+ * file in JDK Mission Control.
+ */
+public class DiagnosticsPane extends BorderPane {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final TextArea report = new TextArea();
+    private final Label status = new Label();
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+
+    public DiagnosticsPane() {
+        report.setEditable(false);
+        report.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
+        setCenter(report);
+
+        Button refresh = new Button("REFRESH");
+        refresh.setOnAction(e -> refresh());
+        Button reset = new Button("RESET");
+        reset.setOnAction(e -> {
+            Metrics.reset();
+            refresh();
+        });
+        Button save = new Button("SAVE REPORT");
+        save.setOnAction(e -> save());
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        status.setStyle("-fx-font-size: 10px; -fx-text-fill: #95a5a6;");
+
+        HBox buttons = new HBox(10, refresh, reset, status, spacer, save);
+        buttons.setAlignment(Pos.CENTER_LEFT);
+        buttons.setPadding(new Insets(10, 0, 0, 0));
+        setBottom(buttons);
+        setPadding(new Insets(15));
+
+        refresher.setCycleCount(Animation.INDEFINITE);
+        refresh();
+    }
+
+    /** Opens the pane in its own window; it stops refreshing when closed. */
+    public static void show(Window owner) {
+        DiagnosticsPane pane = new DiagnosticsPane();
+        Stage stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle("Diagnostics");
+        stage.setScene(new Scene(pane, 780, 520));
+        stage.setOnShown(e -> pane.refresher.play());
+        stage.setOnHidden(e -> pane.refresher.stop());
+        stage.show();
+    }
+
+    private void refresh() {
+        double scroll = report.getScrollTop();
+        report.setText(Metrics.report());
+        report.setScrollTop(scroll);
+    }
+
+    private void save() {
+        Path file = Path.of("metrics-" + LocalDateTime.now().format(FILE_STAMP) + ".txt");
+        try {
+            Metrics.dump(file);
+            status.setText("SAVED " + file.toAbsolutePath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            status.setText("COULD NOT SAVE: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.CSVPageIndex;
+import javafx.collections.ObservableListBase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only ObservableList over a task CSV that is too big to load, for a
+ * TableView to scroll through:
+ * <pre>
+ *   taskTable.setItems(new PagedTaskList(Path.of("archive.csv")));
+ * </pre>
+ * The file must already be in display order, e.g. written by
+ * {@link edu.dccc.utils.CSVReaderWriter#saveToCSVSorted}. Row count and row
+ * positions come from a {@link CSVPageIndex}; only the pages the table asks
+ * for are parsed, and at most {@code cachedPages} of them are kept (least
+ * recently used pages are dropped). When a row near the edge of a page is
+ * read, the neighbouring page is loaded on a background thread, so steady
+ * scrolling rarely waits for the disk.
+ * <p>
+ * Pages are parsed straight into {@link TaskColumns}, about 26 bytes a row.
+ * A Task exists only for a row that {@link #get} was asked for, i.e. the
+ * rows the table renders; the last {@value #CACHED_VIEWS} are kept so a
+ * visible row stays the same object (the table's selection relies on that).
+ * Views are detached and read-only: editing one changes nothing in the file.
+ * The usual cell value and cell factories work on them. Clicking a column
+ * header cannot re-sort the file; set the table's sort policy to refuse
+ * sorting while this list is shown. Call from the FX thread only, and
+ * {@link #close()} when done.
+ */
+public class PagedTaskList extends ObservableListBase<Task> implements Closeable {
+
+    public static final int DEFAULT_PAGE_ROWS = 256;
+    public static final int DEFAULT_CACHED_PAGES = 32;
+    // A few screens of rows
+    private static final int CACHED_VIEWS = 512;
+
+    private final CSVPageIndex index;
+    private final int pageRows;
+    private final int prefetchMargin;
+    private final Map<Integer, TaskColumns> pages;
+    private final Map<Integer, Task> views = new LinkedHashMap<>(CACHED_VIEWS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Task> eldest) {
+            return size() > CACHED_VIEWS;
+        }
+    };
+    private final Map<Integer, Future<TaskColumns>> prefetching = new ConcurrentHashMap<>();
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "page-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger pageLoads = new AtomicInteger();
+
+    public PagedTaskList(Path csv) throws IOException {
+        this(csv, DEFAULT_PAGE_ROWS, DEFAULT_CACHED_PAGES);
+    }
+
+    public PagedTaskList(Path csv, int pageRows, int cachedPages) throws IOException {
+        this.index = CSVPageIndex.open(csv, true, pageRows);
+        this.pageRows = pageRows;
+        this.prefetchMargin = Math.max(1, pageRows / 4);
+        this.pages = new LinkedHashMap<>(cachedPages, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, TaskColumns> eldest) {
+                return size() > cachedPages;
+            }
+        };
+    }
+
+    @Override
+    public int size() { return index.rows(); }
+
+    @Override
+    public Task get(int row) {
+        if (row < 0 || row >= index.rows()) throw new IndexOutOfBoundsException(row);
+        int page = row / pageRows;
+        int offset = row % pageRows;
+        if (offset >= pageRows - prefetchMargin) prefetch(page + 1);
+        else if (offset < prefetchMargin) prefetch(page - 1);
+
+        Task view = views.get(row);
+        if (view == null) {
+            view = page(page).materialize(offset);
+            views.put(row, view);
+        }
+        return view;
+    }
+
+    /** Pages parsed so far, including prefetched ones; a measure of cache misses. */
+    public int pageLoads() { return pageLoads.get(); }
+
+    /** Pages currently held in memory. */
+    public int cachedPages() { return pages.size(); }
+
+    /** Task objects currently held for rows that were read. */
+    public int cachedViews() { return views.size(); }
+
+    @Override
+    public void close() throws IOException {
+        prefetcher.shutdownNow();
+        pages.clear();
+        views.clear();
+        index.close();
+    }
+
+    private TaskColumns page(int page) {
+        TaskColumns rows = pages.get(page);
+        if (rows != null) return rows;
+
+        Future<TaskColumns> pending = prefetching.remove(page);
+        try {
+            rows = (pending != null) ? pending.get() : load(page);
+        } catch (ExecutionException e) {
+            rows = load(page); // Try once more on this thread, so the error surfaces here
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rows = load(page);
+        }
+        pages.put(page, rows);
+        return rows;
+    }
+
+    private void prefetch(int page) {
+        if (page < 0 || page >= index.pages() || pages.containsKey(page) || prefetching.containsKey(page)) return;
+        // After a jump, earlier prefetches are no longer near the viewport
+        prefetching.entrySet().removeIf(e -> {
+            boolean stale = Math.abs(e.getKey() - page) > 2;
+            if (stale) e.getValue().cancel(false);
+            return stale;
+        });
+        prefetching.put(page, prefetcher.submit(() -> load(page)));
+    }
+
+    private TaskColumns load(int page) {
+        int first = page * pageRows;
+        // No id table: ids in a big file can be large, and a page is only read by position
+        TaskColumns rows = new TaskColumns(Math.min(pageRows, index.rows() - first), false);
+        try {
+            index.readPage(page, rows::append); // Malformed rows still take their slot, as in a full load
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pageLoads.incrementAndGet();
+        return rows;
+    }
+}
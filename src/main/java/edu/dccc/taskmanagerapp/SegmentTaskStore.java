@@ -0,0 +1,419 @@
+package edu.dccc.taskmanagerapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Task storage that lives off-heap, in memory-mapped files, through the
+ * Foreign Function &amp; Memory API.
+ * <p>
+ * Every task is a fixed-width 32-byte record in {@code <file>}; subjects go
+ * into an append-only byte area in {@code <file>.subjects}:
+ * <pre>
+ *   header (32 bytes): "TSEG" | version | count | - | subject bytes used | subject generation
+ *   record (32 bytes): id | priority | status | - | start | due | completed
+ *                      | subject length (-1 = null) | subject offset (long)
+ * </pre>
+ * Dates are epoch days ({@code Integer.MIN_VALUE} = no date). The only heap
+ * cost per task is one int in the id-to-row table, so the heap stays small
+ * however many tasks there are. Reopening maps the files and rebuilds that
+ * table from the id column: nothing is parsed.
+ * <p>
+ * It is a {@code Collection<Task>}, so it can be handed to CSVReaderWriter or
+ * TaskPersistenceService in place of an in-memory collection. {@code add}
+ * is an upsert by id, {@code remove} removes by id, and iteration builds a
+ * detached Task per record. Rows are kept dense (a delete moves the last
+ * record into the gap). Replaced subjects leave garbage in the subject area
+ * until {@link #compactSubjects()}. Compaction writes a new subject file,
+ * {@code <file>.subjects.<generation>}, and the records that point into it
+ * under a temp name; renaming those records over {@code <file>} is what
+ * switches to the new generation, so a crash at any point leaves the records
+ * and the subject file they point into matching. Not thread-safe.
+ */
+public final class SegmentTaskStore extends AbstractCollection<Task> implements Closeable {
+
+    private static final int MAGIC = 0x54534547; // "TSEG"
+    private static final int VERSION = 1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final int NULL_SUBJECT = -1;
+    private static final long INITIAL_RECORDS = 1024;
+    private static final long INITIAL_SUBJECT_BYTES = 64 * 1024;
+
+    private static final long HEADER = 32;
+    private static final long H_MAGIC = 0, H_VERSION = 4, H_COUNT = 8, H_SUBJECT_USED = 16, H_SUBJECT_GENERATION = 24;
+
+    private static final long RECORD = 32;
+    private static final long R_ID = 0, R_PRIORITY = 4, R_STATUS = 5, R_START = 8, R_DUE = 12,
+            R_COMPLETED = 16, R_SUBJECT_LENGTH = 20, R_SUBJECT_OFFSET = 24;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+
+    private final Path recordPath;
+    private Path subjectPath;
+    private long subjectGeneration; // 0 (files written before compaction existed): plain <file>.subjects
+    private Mapping records;
+    private Mapping subjects;
+    private int count;
+    private long subjectUsed;
+    private int[] rowOfId = new int[64]; // id -> row + 1; 0 = absent
+    private int modCount;
+
+    /** One mapped file; the arena owns the mapping and unmaps it on close. */
+    private record Mapping(FileChannel channel, Arena arena, MemorySegment segment) {
+        static Mapping open(Path file, long minSize) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(minSize, channel.size());
+            Arena arena = Arena.ofShared();
+            return new Mapping(channel, arena, channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena));
+        }
+
+        /** Maps the file again, grown to at least {@code minSize}. */
+        Mapping grow(long minSize) throws IOException {
+            long size = Math.max(minSize, segment.byteSize() * 2);
+            segment.force();
+            arena.close();
+            Arena next = Arena.ofShared();
+            return new Mapping(channel, next, channel.map(FileChannel.MapMode.READ_WRITE, 0, size, next));
+        }
+
+        void close() throws IOException {
+            segment.force();
+            arena.close();
+            channel.close();
+        }
+    }
+
+    /** Opens the store in {@code file} (and {@code file.subjects}), creating both if needed. */
+    public SegmentTaskStore(Path file) throws IOException {
+        this.recordPath = file;
+        boolean fresh = !Files.exists(recordPath) || Files.size(recordPath) < HEADER;
+
+        records = Mapping.open(recordPath, HEADER + INITIAL_RECORDS * RECORD);
+        MemorySegment header = records.segment();
+
+        if (fresh) {
+            subjectPath = subjectPath(0);
+            subjects = Mapping.open(subjectPath, INITIAL_SUBJECT_BYTES);
+            header.set(INT, H_MAGIC, MAGIC);
+            header.set(INT, H_VERSION, VERSION);
+            writeHeader();
+            return;
+        }
+        if (header.get(INT, H_MAGIC) != MAGIC) {
+            records.close();
+            throw new IOException(file + " is not a task segment file");
+        }
+        int version = header.get(INT, H_VERSION);
+        if (version != VERSION) {
+            records.close();
+            throw new IOException("Unsupported segment version " + version);
+        }
+        count = header.get(INT, H_COUNT);
+        subjectUsed = header.get(LONG, H_SUBJECT_USED);
+        subjectGeneration = header.get(LONG, H_SUBJECT_GENERATION);
+        subjectPath = subjectPath(subjectGeneration);
+        subjects = Mapping.open(subjectPath, INITIAL_SUBJECT_BYTES);
+        // A crash right after a compaction's switch leaves the previous subject file behind
+        if (subjectGeneration > 0) Files.deleteIfExists(subjectPath(subjectGeneration - 1));
+
+        // The only work on open: one pass over the id column
+        for (int row = 0; row < count; row++) {
+            int id = records.segment().get(INT, recordOffset(row) + R_ID);
+            ensureIdCapacity(id);
+            rowOfId[id] = row + 1;
+        }
+    }
+
+    // --- Collection<Task> ---
+
+    @Override
+    public int size() { return count; }
+
+    /** Upsert by id. Always returns true. */
+    @Override
+    public boolean add(Task task) {
+        try {
+            put(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return (o instanceof Task task) && containsId(task.getTaskId());
+    }
+
+    /** Removes the task with the same id as {@code o}. */
+    @Override
+    public boolean remove(Object o) {
+        return (o instanceof Task task) && removeById(task.getTaskId());
+    }
+
+    @Override
+    public void clear() {
+        count = 0;
+        subjectUsed = 0;
+        Arrays.fill(rowOfId, 0);
+        writeHeader();
+        modCount++;
+    }
+
+    /** Iterates in row order, building a detached Task per record. Supports remove(). */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int next;
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override public boolean hasNext() { return next < count; }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (next >= count) throw new NoSuchElementException();
+                last = next;
+                return read(next++);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                removeById(idAt(last));
+                next = last; // The last record moved into this row
+                last = -1;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    // --- Keyed access ---
+
+    public boolean containsId(int id) {
+        return id >= 0 && id < rowOfId.length && rowOfId[id] != 0;
+    }
+
+    /** The task with this id, materialized, or null. */
+    public Task get(int id) {
+        return containsId(id) ? read(rowOfId[id] - 1) : null;
+    }
+
+    public void put(Task task) throws IOException {
+        int id = task.getTaskId();
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+        int row;
+        if (containsId(id)) {
+            row = rowOfId[id] - 1;
+        } else {
+            long needed = HEADER + (count + 1L) * RECORD;
+            if (needed > records.segment().byteSize()) records = records.grow(needed);
+            ensureIdCapacity(id);
+            row = count++;
+            rowOfId[id] = row + 1;
+            modCount++;
+        }
+
+        MemorySegment seg = records.segment();
+        long at = recordOffset(row);
+        seg.set(INT, at + R_ID, id);
+        seg.set(BYTE, at + R_PRIORITY, (byte) task.getPriority().ordinal());
+        seg.set(BYTE, at + R_STATUS, (byte) task.getStatus().ordinal());
+        seg.set(INT, at + R_START, toDay(task.getStartDate()));
+        seg.set(INT, at + R_DUE, toDay(task.getDueDate()));
+        seg.set(INT, at + R_COMPLETED, toDay(task.getCompletedDate()));
+        writeSubject(at, task.getSubject());
+        writeHeader();
+    }
+
+    public boolean removeById(int id) {
+        if (!containsId(id)) return false;
+        int row = rowOfId[id] - 1;
+        rowOfId[id] = 0;
+        int last = --count;
+        if (row != last) {
+            MemorySegment seg = records.segment();
+            MemorySegment.copy(seg, recordOffset(last), seg, recordOffset(row), RECORD);
+            rowOfId[idAt(row)] = row + 1;
+        }
+        writeHeader();
+        modCount++;
+        return true;
+    }
+
+    // --- Durability and housekeeping ---
+
+    /** Forces both mapped files to disk. */
+    public void force() {
+        records.segment().force();
+        subjects.segment().force();
+    }
+
+    /** Bytes in the subject area, including garbage left by replaced subjects. */
+    public long subjectBytesUsed() { return subjectUsed; }
+
+    /**
+     * Rewrites the subject area with live subjects only. The live files are
+     * not touched until the rename that switches to the new generation:
+     * <ol>
+     *   <li>live subjects are copied to {@code <file>.subjects.<generation + 1>};</li>
+     *   <li>the records, with offsets into that file and the new generation in
+     *       the header, are copied to {@code <file>.tmp};</li>
+     *   <li>both are forced to disk and {@code <file>.tmp} is renamed over {@code <file>};</li>
+     *   <li>the old subject file is deleted.</li>
+     * </ol>
+     */
+    public void compactSubjects() throws IOException {
+        long generation = subjectGeneration + 1;
+        Path nextSubjects = subjectPath(generation);
+        Path temp = recordPath.resolveSibling(recordPath.getFileName() + ".tmp");
+        Files.deleteIfExists(nextSubjects); // Left by a compaction that crashed before its switch
+        Files.deleteIfExists(temp);
+
+        Mapping newSubjects = Mapping.open(nextSubjects, Math.max(INITIAL_SUBJECT_BYTES, subjectUsed));
+        Mapping newRecords = Mapping.open(temp, records.segment().byteSize());
+        long used = 0;
+        try {
+            MemorySegment seg = newRecords.segment();
+            MemorySegment.copy(records.segment(), 0, seg, 0, recordOffset(count));
+            MemorySegment from = subjects.segment();
+            for (int row = 0; row < count; row++) {
+                long at = recordOffset(row);
+                int length = seg.get(INT, at + R_SUBJECT_LENGTH);
+                if (length <= 0) continue;
+                MemorySegment.copy(from, seg.get(LONG, at + R_SUBJECT_OFFSET), newSubjects.segment(), used, length);
+                seg.set(LONG, at + R_SUBJECT_OFFSET, used);
+                used += length;
+            }
+            seg.set(LONG, H_SUBJECT_USED, used);
+            seg.set(LONG, H_SUBJECT_GENERATION, generation);
+        } finally {
+            newSubjects.close(); // Both forced to disk before the switch
+            newRecords.close();
+        }
+
+        // The switch: until this rename, the old records and subjects are still the live pair
+        records.close();
+        subjects.close();
+        try {
+            Files.move(temp, recordPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, recordPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path oldSubjects = subjectPath;
+        subjectPath = nextSubjects;
+        subjectGeneration = generation;
+        subjectUsed = used;
+        records = Mapping.open(recordPath, HEADER + INITIAL_RECORDS * RECORD);
+        subjects = Mapping.open(subjectPath, INITIAL_SUBJECT_BYTES);
+        Files.deleteIfExists(oldSubjects);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (records == null) return;
+        try {
+            records.close();
+        } finally {
+            subjects.close();
+            records = null;
+            subjects = null;
+        }
+    }
+
+    // --- Internals ---
+
+    private Path subjectPath(long generation) {
+        String name = recordPath.getFileName() + ".subjects";
+        return recordPath.resolveSibling((generation == 0) ? name : name + "." + generation);
+    }
+
+    private static long recordOffset(int row) {
+        return HEADER + row * RECORD;
+    }
+
+    private int idAt(int row) {
+        return records.segment().get(INT, recordOffset(row) + R_ID);
+    }
+
+    private void ensureIdCapacity(int id) {
+        if (id >= rowOfId.length) rowOfId = Arrays.copyOf(rowOfId, Math.max(id + 1, rowOfId.length * 2));
+    }
+
+    private void writeHeader() {
+        MemorySegment header = records.segment();
+        header.set(INT, H_COUNT, count);
+        header.set(LONG, H_SUBJECT_USED, subjectUsed);
+        header.set(LONG, H_SUBJECT_GENERATION, subjectGeneration);
+    }
+
+    private void writeSubject(long recordAt, String subject) throws IOException {
+        MemorySegment seg = records.segment();
+        if (subject == null) {
+            seg.set(INT, recordAt + R_SUBJECT_LENGTH, NULL_SUBJECT);
+            seg.set(LONG, recordAt + R_SUBJECT_OFFSET, 0L);
+            return;
+        }
+        byte[] bytes = subject.getBytes(StandardCharsets.UTF_8);
+        if (subjectUsed + bytes.length > subjects.segment().byteSize()) {
+            subjects = subjects.grow(subjectUsed + bytes.length);
+        }
+        MemorySegment.copy(bytes, 0, subjects.segment(), BYTE, subjectUsed, bytes.length);
+        seg.set(INT, recordAt + R_SUBJECT_LENGTH, bytes.length);
+        seg.set(LONG, recordAt + R_SUBJECT_OFFSET, subjectUsed);
+        subjectUsed += bytes.length;
+    }
+
+    private Task read(int row) {
+        MemorySegment seg = records.segment();
+        long at = recordOffset(row);
+        return new Task(seg.get(INT, at + R_ID),
+                readSubject(seg, at),
+                PRIORITIES[seg.get(BYTE, at + R_PRIORITY)],
+                STATUSES[seg.get(BYTE, at + R_STATUS)],
+                fromDay(seg.get(INT, at + R_START)),
+                fromDay(seg.get(INT, at + R_DUE)),
+                fromDay(seg.get(INT, at + R_COMPLETED)));
+    }
+
+    private String readSubject(MemorySegment seg, long recordAt) {
+        int length = seg.get(INT, recordAt + R_SUBJECT_LENGTH);
+        if (length == NULL_SUBJECT) return null;
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(subjects.segment(), BYTE, seg.get(LONG, recordAt + R_SUBJECT_OFFSET), bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int toDay(LocalDate date) {
+        return (date == null) ? NULL_DATE : (int) date.toEpochDay();
+    }
+
+    private static LocalDate fromDay(int day) {
+        return (day == NULL_DATE) ? null : LocalDate.ofEpochDay(day);
+    }
+}
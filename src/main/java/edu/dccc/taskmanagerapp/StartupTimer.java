@@ -0,0 +1,81 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.Metrics;
+import javafx.application.Platform;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the phases of a cold start, from process launch to the first frame
+ * and then to the fully loaded table:
+ * <pre>
+ *   jvm        process start -> main() (JVM boot, class loading)
+ *   launch     main() -> Application.start() (JavaFX toolkit)
+ *   fxml       FXML parse, up to the controller's initialize()
+ *   init       initialize(), reading and showing the hot head included
+ *   show       scene + stage.show()
+ *   frame      until the first pulse has laid out the window
+ *   loaded     the whole file loaded, indexed and in the table
+ * </pre>
+ * Once loading is done each phase is recorded as {@code startup.<phase>} in
+ * {@link Metrics}, so it shows in the diagnostics pane. Start the app with
+ * {@code -Dtaskmanager.startup=report} to also print the table once loading
+ * is done, or {@code =exit} to print it and quit, for scripted runs and for
+ * the AOT cache training run in pom.xml.
+ */
+final class StartupTimer {
+
+    private static final String MODE = System.getProperty("taskmanager.startup", "");
+    // Process start is only known in wall-clock time; everything after is measured with nanoTime
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final long ORIGIN_MILLIS = System.currentTimeMillis();
+    private static final long PROCESS_START_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(ORIGIN_MILLIS);
+
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<Long> ends = new ArrayList<>(); // Nanos since process start
+    private static boolean finished;
+
+    private StartupTimer() { }
+
+    /** Ends the phase called {@code phase}; the next one starts now. No-op once loading finished. */
+    static synchronized void mark(String phase) {
+        if (finished) return;
+        long now = (PROCESS_START_MILLIS >= ORIGIN_MILLIS) ? 0 : (ORIGIN_MILLIS - PROCESS_START_MILLIS) * 1_000_000;
+        now += System.nanoTime() - ORIGIN_NANOS;
+        phases.add(phase);
+        ends.add(now);
+    }
+
+    /** Marks the last phase and reports it as asked by {@code -Dtaskmanager.startup}. FX thread only. */
+    static void finish(String phase) {
+        synchronized (StartupTimer.class) {
+            if (finished) return;
+            mark(phase);
+            finished = true;
+            // Only now: Metrics reads the clock, and loading the time zone rules would be one more phase
+            long previous = 0;
+            for (int i = 0; i < phases.size(); i++) {
+                Metrics.latency("startup." + phases.get(i)).record(ends.get(i) - previous);
+                previous = ends.get(i);
+            }
+        }
+        if (MODE.isEmpty()) return;
+        System.out.print(report());
+        if (MODE.equals("exit")) Platform.exit();
+    }
+
+    /** The phases so far, each with its own time and the time since process start. */
+    static synchronized String report() {
+        StringBuilder out = new StringBuilder(String.format("%-10s %10s %10s%n", "STARTUP", "PHASE ms", "TOTAL ms"));
+        long previous = 0;
+        for (int i = 0; i < phases.size(); i++) {
+            out.append(String.format("%-10s %10.1f %10.1f%n", phases.get(i),
+                    (ends.get(i) - previous) / 1e6, ends.get(i) / 1e6));
+            previous = ends.get(i);
+        }
+        return out.toString();
+    }
+}
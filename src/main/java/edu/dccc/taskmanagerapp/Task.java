@@ -1,13 +1,26 @@
 package edu.dccc.taskmanagerapp;
 
-import edu.dccc.utils.CSVTemplate;
+import edu.dccc.utils.CSVParseErrorEvent;
+import edu.dccc.utils.CSVRow;
+import edu.dccc.utils.CSVRowTemplate;
+import edu.dccc.utils.CSVTokenizer;
+import edu.dccc.utils.SortKeyed;
 import java.time.LocalDate;
 
-public class Task implements Comparable<Task>, CSVTemplate {
+public class Task implements Comparable<Task>, CSVRowTemplate, SortKeyed {
 
     public enum Priority { URGENT, HIGH, NORMAL, LOW }
     public enum TaskStatus { NOT_STARTED, IN_PROGRESS, COMPLETED }
 
+    // values() clones the array on every call, so keep one copy for parsing
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    // sortKey() layout: completed (1 bit) | priority ordinal (2 bits) | due day + offset (28 bits)
+    private static final int DUE_BITS = 28;
+    private static final long DUE_OFFSET = 1L << (DUE_BITS - 1);
+    private static final long NO_DUE = (1L << DUE_BITS) - 1; // Sorts after every date
+
     private int taskId;
     private String subject;
     private Priority priority;
@@ -37,6 +50,11 @@ public class Task implements Comparable<Task>, CSVTemplate {
         this(taskId, subject, priority, TaskStatus.NOT_STARTED, start, due, null);
     }
 
+    /** A detached copy with the same values, e.g. to hand a snapshot to another thread. */
+    public Task copy() {
+        return new Task(taskId, subject, priority, status, startDate, dueDate, completedDate);
+    }
+
     @Override
     public int compareTo(Task other) {
         // TODO: Students implement priority-based sorting here.
@@ -45,21 +63,46 @@ public class Task implements Comparable<Task>, CSVTemplate {
         if (this.status != TaskStatus.COMPLETED && other.status == TaskStatus.COMPLETED) return -1;
 
         int priorityComparison = this.priority.compareTo(other.getPriority());
-        if (priorityComparison == 0) {
-            if (this.dueDate == null) return 1;
-            if (other.dueDate == null) return -1;
-            return this.dueDate.compareTo(other.dueDate);
-        }
+        if (priorityComparison == 0) return compareDue(this.dueDate, other.dueDate);
         return priorityComparison;
     }
 
+    /**
+     * Earlier due dates first, undated tasks last. Two undated tasks are
+     * equal: answering 1 for both orders breaks the sort contract, and
+     * TimSort then throws "Comparison method violates its general contract"
+     * on large lists. {@link #sortKey()} gives the same order.
+     */
+    private static int compareDue(LocalDate a, LocalDate b) {
+        if (a == null) return (b == null) ? 0 : 1;
+        if (b == null) return -1;
+        return a.compareTo(b);
+    }
+
+    /**
+     * The {@link #compareTo} order packed into one number, so large saves can
+     * sort primitive keys. Returns -1 for a due date too far from 1970 to pack
+     * (over 367,000 years).
+     */
+    @Override
+    public long sortKey() {
+        long due = NO_DUE;
+        if (dueDate != null) {
+            due = dueDate.toEpochDay() + DUE_OFFSET;
+            if (due < 0 || due >= NO_DUE) return -1;
+        }
+        long completed = (status == TaskStatus.COMPLETED) ? 1 : 0;
+        return (completed << (DUE_BITS + 2)) | ((long) priority.ordinal() << DUE_BITS) | due;
+    }
+
     @Override
     public String toCSV() {
         String startStr = (this.startDate == null) ? "NULL" : this.startDate.toString();
         String dueStr = (this.dueDate == null) ? "NULL" : this.dueDate.toString();
         String compStr = (this.completedDate == null) ? "NULL" : this.completedDate.toString();
 
-        return taskId + "," + subject + "," + priority + "," + status + "," +
+        // Subjects may contain commas or quotes, so they are escaped
+        return taskId + "," + CSVTokenizer.escape(subject) + "," + priority + "," + status + "," +
                 startStr + "," + dueStr + "," + compStr;
     }
 
@@ -75,9 +118,45 @@ public class Task implements Comparable<Task>, CSVTemplate {
             this.completedDate = (p[6].equalsIgnoreCase("NULL")) ? null : LocalDate.parse(p[6]);
         } catch (Exception e) {
             System.err.println("Error parsing task line: " + String.join(",", p));
+            CSVParseErrorEvent.report("Task.fromCSV", -1, String.join(",", p), e);
         }
     }
 
+    @Override
+    public void fromCSV(CSVRow row) {
+        try {
+            read(row);
+        } catch (Exception e) {
+            System.err.println("Error parsing task line: " + row);
+            CSVParseErrorEvent.report("Task.fromCSV", row.lineNumber(), row.toString(), e);
+        }
+    }
+
+    /**
+     * Parses one record like {@link #fromCSV(CSVRow)}, but throws on a
+     * malformed record instead of printing it, so callers can count errors.
+     */
+    public static Task parse(CSVRow row) {
+        Task task = new Task();
+        task.read(row);
+        return task;
+    }
+
+    private void read(CSVRow row) {
+        // Same columns as fromCSV(String[]), read straight from the tokenizer buffer
+        this.taskId = row.parseInt(0);
+        this.subject = row.getString(1);
+        this.priority = row.parseEnum(2, PRIORITIES);
+        this.status = row.parseEnum(3, STATUSES);
+        this.startDate = parseDate(row, 4);
+        this.dueDate = parseDate(row, 5);
+        this.completedDate = parseDate(row, 6);
+    }
+
+    private static LocalDate parseDate(CSVRow row, int field) {
+        return row.equalsIgnoreCase(field, "NULL") ? null : row.parseDate(field);
+    }
+
     // --- Getters and Setters ---
     // Note: In setStatus, students should logic-check if status == COMPLETED
     // then set completedDate = LocalDate.now()
@@ -0,0 +1,245 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.CSVParseErrorEvent;
+import edu.dccc.utils.CSVReaderWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges many task CSV files (e.g. one per team) into a {@link TaskStore}.
+ * <p>
+ * Each file is parsed on its own virtual thread with the streaming
+ * {@link CSVReaderWriter#loadFromCSV(boolean, edu.dccc.utils.CSVRowHandler)}.
+ * Parsed tasks travel in small batches through a bounded queue, so fast
+ * readers block instead of buffering whole files. The calling thread is the
+ * only writer: it groups queued batches and applies each group with one
+ * {@link TaskStore#upsertAll}, i.e. one write lock per group.
+ * <p>
+ * An id that is already in the store, or already seen in this import, is
+ * resolved by the {@link ConflictPolicy}; ids that are not positive always
+ * get a fresh one. Malformed records are counted (with a few samples)
+ * instead of being printed to stderr. A file that cannot be read to the end
+ * counts as failed, with its error among the samples; the rows read before
+ * the error are still imported. For example:
+ * <pre>
+ *   TaskBulkImporter.Report report = new TaskBulkImporter(store)
+ *       .conflictPolicy(TaskBulkImporter.ConflictPolicy.RENUMBER)
+ *       .importFiles(List.of(Path.of("tasks.csv"), Path.of("tasks2.csv")));
+ * </pre>
+ */
+public class TaskBulkImporter {
+
+    public enum ConflictPolicy {
+        /** The incoming task replaces the stored one (last file wins). */
+        OVERWRITE,
+        /** The stored task is kept and the incoming one is skipped. */
+        KEEP_EXISTING,
+        /** The incoming task is kept under a fresh id. */
+        RENUMBER
+    }
+
+    /** What an import did. {@code errorSamples} holds the first few malformed records. */
+    public record Report(int files, int failedFiles, long rowsRead, long inserted, long replaced,
+                         long skipped, long renumbered, long malformed, List<String> errorSamples,
+                         Duration elapsed) {
+        public double rowsPerSecond() {
+            double seconds = elapsed.toNanos() / 1e9;
+            return (seconds == 0) ? 0 : rowsRead / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d files (%d failed), %,d rows in %d ms (%,.0f rows/s): "
+                            + "%,d inserted, %,d replaced, %,d skipped, %,d renumbered, %,d malformed",
+                    files, failedFiles, rowsRead, elapsed.toMillis(), rowsPerSecond(),
+                    inserted, replaced, skipped, renumbered, malformed);
+        }
+    }
+
+    private static final int MAX_ERROR_SAMPLES = 20;
+    private static final List<Task> END = new ArrayList<>(); // Queued after the last reader finishes
+
+    private final TaskStore store;
+    private ConflictPolicy policy = ConflictPolicy.RENUMBER;
+    private boolean hasHeader = true;
+    private int batchSize = 1_000;
+    private int queueCapacity = 64;
+
+    public TaskBulkImporter(TaskStore store) {
+        this.store = store;
+    }
+
+    public TaskBulkImporter conflictPolicy(ConflictPolicy policy) {
+        this.policy = policy;
+        return this;
+    }
+
+    public TaskBulkImporter hasHeader(boolean hasHeader) {
+        this.hasHeader = hasHeader;
+        return this;
+    }
+
+    /** Tasks per queued batch; the writer applies up to 8 batches per write lock. */
+    public TaskBulkImporter batchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        return this;
+    }
+
+    /** Batches the queue holds before readers block. */
+    public TaskBulkImporter queueCapacity(int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        return this;
+    }
+
+    /** Imports all files and blocks until every task is in the store. */
+    public Report importFiles(Collection<Path> files) throws InterruptedException {
+        long started = System.nanoTime();
+        BlockingQueue<List<Task>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Counters counters = new Counters();
+
+        if (files.isEmpty()) return counters.report(0, started);
+
+        AtomicInteger running = new AtomicInteger(files.size());
+        try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path file : files) {
+                readers.submit(() -> {
+                    try {
+                        read(file, queue, counters);
+                    } finally {
+                        if (running.decrementAndGet() == 0) putQuietly(queue, END);
+                    }
+                });
+            }
+            try {
+                write(queue, counters);
+            } catch (InterruptedException | RuntimeException e) {
+                readers.shutdownNow(); // Readers blocked on the full queue would never finish
+                throw e;
+            }
+        }
+        return counters.report(files.size(), started);
+    }
+
+    // --- Readers (one virtual thread per file) ---
+
+    private void read(Path file, BlockingQueue<List<Task>> queue, Counters counters) {
+        if (!Files.isReadable(file)) {
+            counters.failedFiles.incrementAndGet();
+            counters.sample(file + ": cannot be read");
+            return;
+        }
+        List<Task> batch = new ArrayList<>(batchSize);
+        List<Task> ignored = Collections.emptyList(); // The streaming API does not touch the storage
+        try {
+            new CSVReaderWriter<>(file.toString(), ignored, Task::new).loadFromCSV(hasHeader, row -> {
+                if (Thread.currentThread().isInterrupted()) return;
+                counters.rowsRead.incrementAndGet();
+                try {
+                    batch.add(Task.parse(row));
+                } catch (RuntimeException e) {
+                    counters.malformed.incrementAndGet();
+                    counters.sample(file.getFileName() + ":" + row.lineNumber() + ": " + row);
+                    CSVParseErrorEvent.report(file.toString(), row.lineNumber(), row.toString(), e);
+                    return;
+                }
+                if (batch.size() == batchSize) {
+                    putQuietly(queue, new ArrayList<>(batch));
+                    batch.clear();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            counters.failedFiles.incrementAndGet();
+            counters.sample(file + ": " + e);
+        }
+        if (!batch.isEmpty()) putQuietly(queue, batch);
+    }
+
+    private static void putQuietly(BlockingQueue<List<Task>> queue, List<Task> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Writer (the calling thread) ---
+
+    private void write(BlockingQueue<List<Task>> queue, Counters counters) throws InterruptedException {
+        List<List<Task>> batches = new ArrayList<>();
+        boolean done = false;
+        while (!done) {
+            batches.add(queue.take());
+            queue.drainTo(batches, 7); // Whatever else is ready goes under the same lock
+            Map<Integer, Task> group = new LinkedHashMap<>();
+            for (List<Task> batch : batches) {
+                if (batch == END) {
+                    done = true;
+                } else {
+                    for (Task task : batch) resolve(task, group, counters);
+                }
+            }
+            batches.clear();
+            if (!group.isEmpty()) store.upsertAll(group.values());
+        }
+    }
+
+    /** Applies the conflict policy; the group ends up with unique ids. */
+    private void resolve(Task task, Map<Integer, Task> group, Counters counters) {
+        int id = task.getTaskId();
+        boolean taken = id <= 0 || group.containsKey(id) || store.get(id) != null;
+        if (!taken) {
+            group.put(id, task);
+            counters.inserted++;
+            return;
+        }
+        if (policy == ConflictPolicy.RENUMBER || id <= 0) {
+            // Ids of this group are not in the store yet, so nextId() may hand one of them out
+            int fresh;
+            do {
+                fresh = store.nextId();
+            } while (group.containsKey(fresh));
+            task.setTaskId(fresh);
+            group.put(fresh, task);
+            counters.renumbered++;
+        } else if (policy == ConflictPolicy.OVERWRITE) {
+            group.put(id, task);
+            counters.replaced++;
+        } else {
+            counters.skipped++;
+        }
+    }
+
+    private static final class Counters {
+        final AtomicInteger failedFiles = new AtomicInteger();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong malformed = new AtomicLong();
+        // Only the writer thread updates these
+        long inserted, replaced, skipped, renumbered;
+        final List<String> samples = Collections.synchronizedList(new ArrayList<>());
+
+        void sample(String error) {
+            if (samples.size() < MAX_ERROR_SAMPLES) samples.add(error);
+        }
+
+        Report report(int files, long started) {
+            return new Report(files, failedFiles.get(), rowsRead.get(), inserted, replaced, skipped,
+                    renumbered, malformed.get(), List.copyOf(samples),
+                    Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+}
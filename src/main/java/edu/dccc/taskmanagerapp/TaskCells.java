@@ -0,0 +1,119 @@
+package edu.dccc.taskmanagerapp;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.css.PseudoClass;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cell value and cell factories for the task table, built for scrolling.
+ * <p>
+ * Cells never call {@code setStyle}: an inline style is parsed again on every
+ * call, and {@code updateItem} runs for every visible cell on every scroll
+ * step. Each cell gets a style class once, and its state is a pseudo-class
+ * (e.g. {@code .priority-cell:urgent}), styled in style.css. Display strings
+ * are computed once per enum constant, and once per date for the last few
+ * thousand dates. Values are read through getters instead of
+ * PropertyValueFactory's reflection.
+ */
+public final class TaskCells {
+
+    private static final PseudoClass[] PRIORITY_STATES = pseudoClasses(Task.Priority.values());
+    private static final PseudoClass[] STATUS_STATES = pseudoClasses(Task.TaskStatus.values());
+    private static final PseudoClass TBD = PseudoClass.getPseudoClass("tbd");
+
+    private static final String[] PRIORITY_TEXT = labels(Task.Priority.values());
+    private static final String[] STATUS_TEXT = labels(Task.TaskStatus.values());
+
+    // Tables show few distinct dates; cleared rather than evicted when full
+    private static final int DATE_CACHE = 4096;
+    private static final Map<LocalDate, String> DATE_TEXT = new HashMap<>();
+
+    private TaskCells() { }
+
+    /** A cell value factory that calls {@code getter} on the row's task. */
+    public static <T> Callback<TableColumn.CellDataFeatures<Task, T>, ObservableValue<T>> value(Function<Task, T> getter) {
+        return features -> new ReadOnlyObjectWrapper<>(getter.apply(features.getValue()));
+    }
+
+    public static TableCell<Task, Task.Priority> priorityCell(TableColumn<Task, Task.Priority> col) {
+        return new EnumCell<>("priority-cell", PRIORITY_STATES, PRIORITY_TEXT);
+    }
+
+    public static TableCell<Task, Task.TaskStatus> statusCell(TableColumn<Task, Task.TaskStatus> col) {
+        return new EnumCell<>("status-cell", STATUS_STATES, STATUS_TEXT);
+    }
+
+    public static TableCell<Task, LocalDate> dateCell(TableColumn<Task, LocalDate> col) {
+        return new TableCell<>() {
+            {
+                getStyleClass().add("date-cell");
+            }
+
+            @Override
+            protected void updateItem(LocalDate item, boolean empty) {
+                super.updateItem(item, empty);
+                pseudoClassStateChanged(TBD, !empty && item == null);
+                if (empty) setText(null);
+                else setText((item == null) ? "TBD" : format(item));
+            }
+        };
+    }
+
+    /** The date's display text, from the cache when it was shown before. FX thread only. */
+    static String format(LocalDate date) {
+        String text = DATE_TEXT.get(date);
+        if (text == null) {
+            if (DATE_TEXT.size() >= DATE_CACHE) DATE_TEXT.clear();
+            text = date.toString();
+            DATE_TEXT.put(date, text);
+        }
+        return text;
+    }
+
+    /** Shows an enum as its precomputed label and switches one pseudo-class per constant. */
+    private static final class EnumCell<E extends Enum<E>> extends TableCell<Task, E> {
+        private final PseudoClass[] states;
+        private final String[] texts;
+        private E shown;
+
+        EnumCell(String styleClass, PseudoClass[] states, String[] texts) {
+            this.states = states;
+            this.texts = texts;
+            getStyleClass().add(styleClass);
+        }
+
+        @Override
+        protected void updateItem(E item, boolean empty) {
+            super.updateItem(item, empty);
+            E next = empty ? null : item;
+            if (next == shown) return; // Same state as before: nothing to restyle
+            if (shown != null) pseudoClassStateChanged(states[shown.ordinal()], false);
+            if (next != null) pseudoClassStateChanged(states[next.ordinal()], true);
+            setText((next == null) ? null : texts[next.ordinal()]);
+            shown = next;
+        }
+    }
+
+    private static PseudoClass[] pseudoClasses(Enum<?>[] constants) {
+        PseudoClass[] states = new PseudoClass[constants.length];
+        for (Enum<?> c : constants) {
+            // URGENT -> :urgent, IN_PROGRESS -> :in-progress
+            states[c.ordinal()] = PseudoClass.getPseudoClass(c.name().toLowerCase().replace('_', '-'));
+        }
+        return states;
+    }
+
+    private static String[] labels(Enum<?>[] constants) {
+        String[] texts = new String[constants.length];
+        for (Enum<?> c : constants) texts[c.ordinal()] = c.toString().replace("_", " ");
+        return texts;
+    }
+}
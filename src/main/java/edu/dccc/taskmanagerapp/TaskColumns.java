@@ -0,0 +1,295 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.CSVParseErrorEvent;
+import edu.dccc.utils.CSVRow;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Struct-of-arrays task storage for very large task sets.
+ * <p>
+ * A {@link Task} object costs roughly 150 bytes once its three LocalDates,
+ * header and references are counted, and millions of them make GC pauses
+ * long. Here each field is one primitive column, so a task is 22 bytes of
+ * arrays:
+ * <pre>
+ *   int[]  id, subject (index into a deduplicated string pool)
+ *   int[]  start, due, completed as epoch days (NULL_DATE = no date)
+ *   byte[] priority, status ordinals
+ * </pre>
+ * Tasks are materialized only on demand: {@link #rows()} is a list whose
+ * {@code get} builds a short-lived Task view, so a TableView creates objects
+ * only for the rows it renders. Views are detached copies; write an edited
+ * view back with {@link #put(Task)}.
+ * <p>
+ * Rows are kept dense: removing a task moves the last row into its place.
+ * The subject pool only grows; rebuilding the columns drops unused subjects.
+ * Ids should be small and dense (as handed out by IdAllocator), since an
+ * id-to-row table is indexed by id. Columns built without that table only
+ * grow by {@link #append(CSVRow)}, straight from the CSV tokenizer, and can
+ * hold any ids; {@link PagedTaskList} keeps its pages that way. Not
+ * thread-safe.
+ */
+public class TaskColumns {
+
+    public static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    // Views handed out by rows(), so a row asked for twice while visible is the same object
+    private static final int VIEW_CACHE = 512;
+
+    private int size;
+    private int[] ids;
+    private int[] subjects;
+    private int[] starts;
+    private int[] dues;
+    private int[] completions;
+    private byte[] priorities;
+    private byte[] statuses;
+    private int[] rowOfId; // id -> row + 1; 0 = absent. Null: no lookup by id
+
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private String[] pool = new String[64];
+    private int poolSize;
+
+    private final Map<Integer, Task> views = new LinkedHashMap<>(VIEW_CACHE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Task> eldest) {
+            return size() > VIEW_CACHE;
+        }
+    };
+
+    public TaskColumns() {
+        this(1024);
+    }
+
+    public TaskColumns(int initialCapacity) {
+        this(initialCapacity, true);
+    }
+
+    /** @param byId false for append-only columns with no id lookup (rows in file order) */
+    public TaskColumns(int initialCapacity, boolean byId) {
+        if (byId) rowOfId = new int[64];
+        int capacity = Math.max(16, initialCapacity);
+        ids = new int[capacity];
+        subjects = new int[capacity];
+        starts = new int[capacity];
+        dues = new int[capacity];
+        completions = new int[capacity];
+        priorities = new byte[capacity];
+        statuses = new byte[capacity];
+    }
+
+    public int size() { return size; }
+
+    /** Distinct subjects stored; equal subjects share one String. */
+    public int distinctSubjects() { return poolSize; }
+
+    public boolean contains(int id) {
+        return rowOfId != null && id >= 0 && id < rowOfId.length && rowOfId[id] != 0;
+    }
+
+    // --- Writes ---
+
+    /** Stores the task's values, replacing the row with the same id if there is one. */
+    public void put(Task task) {
+        int id = task.getTaskId();
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+        if (rowOfId == null) throw new IllegalStateException("Columns without an id table only support append()");
+        int row;
+        if (contains(id)) {
+            row = rowOfId[id] - 1;
+        } else {
+            row = newRow(id);
+        }
+        set(row, id, intern(task.getSubject()), task.getPriority(), task.getStatus(),
+                toDay(task.getStartDate()), toDay(task.getDueDate()), toDay(task.getCompletedDate()));
+    }
+
+    /**
+     * Appends one task record (the seven CSV columns) without building a Task.
+     * Like {@link Task#fromCSV(CSVRow)}, a malformed record is reported and
+     * still takes a row, holding the values read before the error.
+     */
+    public void append(CSVRow record) {
+        int id = 0;
+        int subject = -1;
+        Task.Priority priority = Task.Priority.NORMAL;
+        Task.TaskStatus status = Task.TaskStatus.NOT_STARTED;
+        int start = NULL_DATE;
+        int due = NULL_DATE;
+        int completed = NULL_DATE;
+        try {
+            id = record.parseInt(0);
+            subject = intern(record.getString(1));
+            priority = record.parseEnum(2, PRIORITIES);
+            status = record.parseEnum(3, STATUSES);
+            start = parseDay(record, 4);
+            due = parseDay(record, 5);
+            completed = parseDay(record, 6);
+        } catch (Exception e) {
+            System.err.println("Error parsing task line: " + record);
+            CSVParseErrorEvent.report("TaskColumns.append", record.lineNumber(), record.toString(), e);
+        }
+        if (contains(id)) {
+            set(rowOfId[id] - 1, id, subject, priority, status, start, due, completed);
+        } else {
+            set(newRow(id), id, subject, priority, status, start, due, completed);
+        }
+    }
+
+    private int newRow(int id) {
+        if (size == ids.length) grow();
+        int row = size++;
+        if (rowOfId != null && id >= 0) {
+            if (id >= rowOfId.length) rowOfId = Arrays.copyOf(rowOfId, Math.max(id + 1, rowOfId.length * 2));
+            rowOfId[id] = row + 1;
+        }
+        return row;
+    }
+
+    private void set(int row, int id, int subject, Task.Priority priority, Task.TaskStatus status,
+                     int start, int due, int completed) {
+        ids[row] = id;
+        subjects[row] = subject;
+        priorities[row] = (byte) priority.ordinal();
+        statuses[row] = (byte) status.ordinal();
+        starts[row] = start;
+        dues[row] = due;
+        completions[row] = completed;
+        views.remove(row);
+    }
+
+    private static int parseDay(CSVRow record, int field) {
+        return record.equalsIgnoreCase(field, "NULL") ? NULL_DATE : (int) record.parseDate(field).toEpochDay();
+    }
+
+    public void putAll(Iterable<Task> tasks) {
+        for (Task task : tasks) put(task);
+    }
+
+    /** Removes a task by id; the last row moves into the gap. */
+    public boolean remove(int id) {
+        if (!contains(id)) return false;
+        int row = rowOfId[id] - 1;
+        rowOfId[id] = 0;
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            subjects[row] = subjects[last];
+            priorities[row] = priorities[last];
+            statuses[row] = statuses[last];
+            starts[row] = starts[last];
+            dues[row] = dues[last];
+            completions[row] = completions[last];
+            rowOfId[ids[row]] = row + 1;
+        }
+        views.remove(row);
+        views.remove(last);
+        return true;
+    }
+
+    public void clear() {
+        size = 0;
+        if (rowOfId != null) Arrays.fill(rowOfId, 0);
+        poolIndex.clear();
+        Arrays.fill(pool, 0, poolSize, null);
+        poolSize = 0;
+        views.clear();
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        subjects = Arrays.copyOf(subjects, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        dues = Arrays.copyOf(dues, capacity);
+        completions = Arrays.copyOf(completions, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+
+    private int intern(String subject) {
+        if (subject == null) return -1;
+        Integer ref = poolIndex.get(subject);
+        if (ref != null) return ref;
+        if (poolSize == pool.length) pool = Arrays.copyOf(pool, poolSize * 2);
+        pool[poolSize] = subject;
+        poolIndex.put(subject, poolSize);
+        return poolSize++;
+    }
+
+    private static int toDay(LocalDate date) {
+        return (date == null) ? NULL_DATE : (int) date.toEpochDay();
+    }
+
+    private static LocalDate fromDay(int day) {
+        return (day == NULL_DATE) ? null : LocalDate.ofEpochDay(day);
+    }
+
+    // --- Column access (no allocation except the dates) ---
+
+    public int rowOf(int id) { return contains(id) ? rowOfId[id] - 1 : -1; }
+
+    public int id(int row) { return ids[row]; }
+
+    public String subject(int row) { return subjects[row] < 0 ? null : pool[subjects[row]]; }
+
+    public Task.Priority priority(int row) { return PRIORITIES[priorities[row]]; }
+
+    public Task.TaskStatus status(int row) { return STATUSES[statuses[row]]; }
+
+    /** Raw epoch-day columns, for scans that should not allocate LocalDates. */
+    public int startDay(int row) { return starts[row]; }
+    public int dueDay(int row) { return dues[row]; }
+    public int completedDay(int row) { return completions[row]; }
+
+    public LocalDate startDate(int row) { return fromDay(starts[row]); }
+    public LocalDate dueDate(int row) { return fromDay(dues[row]); }
+    public LocalDate completedDate(int row) { return fromDay(completions[row]); }
+
+    /** A new, detached Task with the row's values. */
+    public Task materialize(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException(row);
+        return new Task(ids[row], subject(row), priority(row), status(row),
+                startDate(row), dueDate(row), completedDate(row));
+    }
+
+    /** The task with this id, materialized, or null. */
+    public Task get(int id) {
+        int row = rowOf(id);
+        return (row < 0) ? null : materialize(row);
+    }
+
+    /**
+     * Read-only list view in row order. Tasks are built lazily per
+     * {@code get} and the most recently used ones are cached, so only the
+     * rows a table actually shows exist as objects.
+     */
+    public List<Task> rows() {
+        return new RowList();
+    }
+
+    private final class RowList extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int row) {
+            if (row < 0 || row >= size) throw new IndexOutOfBoundsException(row);
+            Task view = views.get(row);
+            if (view == null || view.getTaskId() != ids[row]) {
+                view = materialize(row);
+                views.put(row, view);
+            }
+            return view;
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+}
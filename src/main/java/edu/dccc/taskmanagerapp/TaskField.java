@@ -0,0 +1,30 @@
+package edu.dccc.taskmanagerapp;
+
+import java.util.Objects;
+
+/**
+ * The fields of a {@link Task} that a write can change, as bits for cheap
+ * masks: a {@link TaskQuery} keeps the bits of the fields it reads, and
+ * {@link TaskQueryCache} re-tests it only when a write changed one of them.
+ * {@link #DELETED} stands for the task being added or removed.
+ */
+public enum TaskField {
+    SUBJECT, PRIORITY, STATUS, START_DATE, DUE_DATE, COMPLETED_DATE, DELETED;
+
+    /** Every field; what an added or replaced task changes. */
+    public static final int ALL = (1 << values().length) - 1;
+
+    public final int bit = 1 << ordinal();
+
+    /** The fields (as bits) whose values differ between two versions of a task. */
+    public static int differences(Task a, Task b) {
+        int fields = 0;
+        if (!Objects.equals(a.getSubject(), b.getSubject())) fields |= SUBJECT.bit;
+        if (a.getPriority() != b.getPriority()) fields |= PRIORITY.bit;
+        if (a.getStatus() != b.getStatus()) fields |= STATUS.bit;
+        if (!Objects.equals(a.getStartDate(), b.getStartDate())) fields |= START_DATE.bit;
+        if (!Objects.equals(a.getDueDate(), b.getDueDate())) fields |= DUE_DATE.bit;
+        if (!Objects.equals(a.getCompletedDate(), b.getCompletedDate())) fields |= COMPLETED_DATE.bit;
+        return fields;
+    }
+}
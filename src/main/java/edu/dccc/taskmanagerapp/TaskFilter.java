@@ -0,0 +1,126 @@
+package edu.dccc.taskmanagerapp;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Objects;
+
+/**
+ * Criteria for {@link TaskStore#find}: allowed priorities and statuses, plus
+ * optional ranges on the three dates. A new filter matches every task; each
+ * call narrows it. For example, the on-call view "URGENT, not COMPLETED, due
+ * in the next 7 days":
+ * <pre>
+ *   new TaskFilter()
+ *       .priorities(Task.Priority.URGENT)
+ *       .excludeStatus(Task.TaskStatus.COMPLETED)
+ *       .dueBetween(today, today.plusDays(7));
+ * </pre>
+ */
+public class TaskFilter {
+
+    /** Inclusive date range; a null bound is open. {@code undated} selects tasks with no date instead. */
+    record DateRange(LocalDate from, LocalDate to, boolean undated) {
+        boolean matches(LocalDate date) {
+            if (undated) return date == null;
+            if (date == null) return false;
+            return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+        }
+    }
+
+    private final EnumSet<Task.Priority> priorities = EnumSet.allOf(Task.Priority.class);
+    private final EnumSet<Task.TaskStatus> statuses = EnumSet.allOf(Task.TaskStatus.class);
+    private DateRange due;
+    private DateRange start;
+    private DateRange completed;
+
+    /** Keeps only these priorities; with none given, no task matches. */
+    public TaskFilter priorities(Task.Priority... allowed) {
+        if (allowed.length == 0) priorities.clear();
+        else priorities.retainAll(EnumSet.of(allowed[0], allowed));
+        return this;
+    }
+
+    /** Keeps only these statuses; with none given, no task matches. */
+    public TaskFilter statuses(Task.TaskStatus... allowed) {
+        if (allowed.length == 0) statuses.clear();
+        else statuses.retainAll(EnumSet.of(allowed[0], allowed));
+        return this;
+    }
+
+    public TaskFilter excludeStatus(Task.TaskStatus status) {
+        statuses.remove(status);
+        return this;
+    }
+
+    /** Due date in {@code [from, to]}; either bound may be null. Tasks with no due date never match. */
+    public TaskFilter dueBetween(LocalDate from, LocalDate to) {
+        due = new DateRange(from, to, false);
+        return this;
+    }
+
+    /** Only tasks with no due date. */
+    public TaskFilter dueUndated() {
+        due = new DateRange(null, null, true);
+        return this;
+    }
+
+    public TaskFilter startedBetween(LocalDate from, LocalDate to) {
+        start = new DateRange(from, to, false);
+        return this;
+    }
+
+    public TaskFilter completedBetween(LocalDate from, LocalDate to) {
+        completed = new DateRange(from, to, false);
+        return this;
+    }
+
+    /** An independent copy, e.g. for a cache key that must not change. */
+    public TaskFilter copy() {
+        TaskFilter copy = new TaskFilter();
+        copy.priorities.retainAll(priorities);
+        copy.statuses.retainAll(statuses);
+        copy.due = due;
+        copy.start = start;
+        copy.completed = completed;
+        return copy;
+    }
+
+    /** The task fields this filter looks at, as {@link TaskField} bits. */
+    int fields() {
+        int fields = 0;
+        if (priorities.size() < Task.Priority.values().length) fields |= TaskField.PRIORITY.bit;
+        if (statuses.size() < Task.TaskStatus.values().length) fields |= TaskField.STATUS.bit;
+        if (due != null) fields |= TaskField.DUE_DATE.bit;
+        if (start != null) fields |= TaskField.START_DATE.bit;
+        if (completed != null) fields |= TaskField.COMPLETED_DATE.bit;
+        return fields;
+    }
+
+    EnumSet<Task.Priority> priorities() { return priorities; }
+    EnumSet<Task.TaskStatus> statuses() { return statuses; }
+    DateRange due() { return due; }
+    DateRange start() { return start; }
+    DateRange completed() { return completed; }
+
+    /** Tests one task directly; {@link TaskStore#find} gives the same answer from its indexes. */
+    public boolean matches(Task task) {
+        return priorities.contains(task.getPriority())
+                && statuses.contains(task.getStatus())
+                && (due == null || due.matches(task.getDueDate()))
+                && (start == null || start.matches(task.getStartDate()))
+                && (completed == null || completed.matches(task.getCompletedDate()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TaskFilter other
+                && priorities.equals(other.priorities) && statuses.equals(other.statuses)
+                && Objects.equals(due, other.due) && Objects.equals(start, other.start)
+                && Objects.equals(completed, other.completed);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(priorities, statuses, due, start, completed);
+    }
+}
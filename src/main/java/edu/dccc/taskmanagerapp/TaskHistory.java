@@ -0,0 +1,320 @@
+package edu.dccc.taskmanagerapp;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Undo and redo for edits made through it, recorded as reversible deltas
+ * instead of copies of the store.
+ * <p>
+ * Edits go through {@link #create}, {@link #update} and {@link #delete}.
+ * Each is stored as an {@link Edit}: the {@link TaskField}s that changed,
+ * with only those fields' values before and after. Subjects, enums and dates
+ * are immutable, so a delta shares them with the task instead of copying. A
+ * one-field edit costs about 80 bytes, whatever the size of the store; an
+ * edit recorded as its own command adds about 100 more for the command and
+ * its label. Adds and deletes hold every field. Several edits made inside
+ * {@link #group} become one {@link Command}, undone and redone as a unit, and
+ * edits of the same task within it are coalesced into one delta.
+ * <p>
+ * At most {@code maxEdits} edits are kept (undo and redo together); the
+ * oldest commands are dropped first. A new command clears the redo list.
+ * Undo restores only the fields the edit changed, so a later change made
+ * around the history (e.g. a {@link DeadlineScheduler} escalation) to
+ * other fields survives it.
+ * <p>
+ * {@link #commands()} is the session so far, oldest first, and
+ * {@link #replay} runs it against another store: the same edits in the same
+ * order, so it also makes a repeatable benchmark of the store's write path.
+ * Thread-safe.
+ */
+public class TaskHistory {
+
+    public static final int DEFAULT_MAX_EDITS = 10_000;
+
+    /**
+     * One task's change. {@code fields} are {@link TaskField} bits;
+     * {@code before} and {@code after} hold one value per field in
+     * {@code fields}, in TaskField order (DELETED has none). With
+     * {@link TaskField#DELETED} in {@code fields} the task was added or
+     * removed: a side then holds every field, or is null where the task did
+     * not exist.
+     */
+    public record Edit(int taskId, int fields, Object[] before, Object[] after) {
+
+        public boolean has(TaskField field) { return (fields & field.bit) != 0; }
+
+        /** The value of {@code field} on one side, which must hold it. */
+        public Object value(Object[] values, TaskField field) {
+            return values[slot(fields, field)];
+        }
+
+        /** A new task with the values of a whole side (one with DELETED in its fields). */
+        Task toTask(Object[] values) {
+            Task task = new Task();
+            task.setTaskId(taskId);
+            applyTo(values, fields, task);
+            return task;
+        }
+
+        /** {@code task}'s values of the fields in {@code fields}, in TaskField order. */
+        static Object[] valuesOf(Task task, int fields) {
+            Object[] values = new Object[Integer.bitCount(fields & ~TaskField.DELETED.bit)];
+            int i = 0;
+            if ((fields & TaskField.SUBJECT.bit) != 0) values[i++] = task.getSubject();
+            if ((fields & TaskField.PRIORITY.bit) != 0) values[i++] = task.getPriority();
+            if ((fields & TaskField.STATUS.bit) != 0) values[i++] = task.getStatus();
+            if ((fields & TaskField.START_DATE.bit) != 0) values[i++] = task.getStartDate();
+            if ((fields & TaskField.DUE_DATE.bit) != 0) values[i++] = task.getDueDate();
+            if ((fields & TaskField.COMPLETED_DATE.bit) != 0) values[i] = task.getCompletedDate();
+            return values;
+        }
+
+        /** Sets the {@code values} of {@code fields} (except DELETED) on {@code task}. */
+        static void applyTo(Object[] values, int fields, Task task) {
+            LocalDate stamped = task.getCompletedDate();
+            int i = 0;
+            if ((fields & TaskField.SUBJECT.bit) != 0) task.setSubject((String) values[i++]);
+            if ((fields & TaskField.PRIORITY.bit) != 0) task.setPriority((Task.Priority) values[i++]);
+            if ((fields & TaskField.STATUS.bit) != 0) {
+                task.setStatus((Task.TaskStatus) values[i++]);
+                task.setCompletedDate(stamped); // setStatus() stamps a date; COMPLETED_DATE carries its own
+            }
+            if ((fields & TaskField.START_DATE.bit) != 0) task.setStartDate((LocalDate) values[i++]);
+            if ((fields & TaskField.DUE_DATE.bit) != 0) task.setDueDate((LocalDate) values[i++]);
+            if ((fields & TaskField.COMPLETED_DATE.bit) != 0) task.setCompletedDate((LocalDate) values[i]);
+        }
+
+        /** Index of {@code field}'s value in a side of an edit of {@code fields}. */
+        static int slot(int fields, TaskField field) {
+            return Integer.bitCount(fields & (field.bit - 1));
+        }
+    }
+
+    /** What one undo or redo step applies. */
+    public record Command(String label, List<Edit> edits) { }
+
+    /** Tasks an undo, redo or replay left in the store, and the ones it took out. */
+    public record Result(String label, List<Task> changed, List<Task> removed) { }
+
+    private final TaskStore store;
+    private final int maxEdits;
+    private final Deque<Command> undo = new ArrayDeque<>();
+    private final Deque<Command> redo = new ArrayDeque<>();
+    private int kept; // Edits in undo + redo
+    private List<Edit> group;
+    private Map<Integer, Integer> groupSlots; // task id -> its edit in group
+
+    public TaskHistory(TaskStore store) {
+        this(store, DEFAULT_MAX_EDITS);
+    }
+
+    public TaskHistory(TaskStore store, int maxEdits) {
+        this.store = store;
+        this.maxEdits = Math.max(1, maxEdits);
+    }
+
+    public TaskStore store() { return store; }
+
+    public synchronized boolean canUndo() { return !undo.isEmpty(); }
+
+    public synchronized boolean canRedo() { return !redo.isEmpty(); }
+
+    /** Label of the command {@link #undo()} would revert, or null. */
+    public synchronized String undoLabel() { return undo.isEmpty() ? null : undo.peek().label(); }
+
+    public synchronized String redoLabel() { return redo.isEmpty() ? null : redo.peek().label(); }
+
+    /** The undoable session, oldest command first. */
+    public synchronized List<Command> commands() {
+        return new ArrayList<>(undo.reversed());
+    }
+
+    /** Edits currently held, undo and redo together. */
+    public synchronized int size() { return kept; }
+
+    /** Drops all history, e.g. after the store was reloaded. */
+    public synchronized void clear() {
+        undo.clear();
+        redo.clear();
+        kept = 0;
+    }
+
+    // --- Recording ---
+
+    /** Adds a task (or replaces the one with its id); one with id 0 or less gets a fresh id first. */
+    public synchronized Task create(Task task) {
+        if (task.getTaskId() <= 0) task.setTaskId(store.nextId());
+        Task replaced = store.upsert(task);
+        Object[] before = (replaced == null) ? null : Edit.valuesOf(replaced, TaskField.ALL);
+        record(new Edit(task.getTaskId(), TaskField.ALL, before, Edit.valuesOf(task, TaskField.ALL)), "Add");
+        return task;
+    }
+
+    /**
+     * Like {@link TaskStore#modify}, then records the fields the change touched.
+     * @return the changed task, or null if there is no task with that id
+     */
+    public synchronized Task update(int id, Consumer<? super Task> change) {
+        Task[] before = new Task[1];
+        Task task = store.modify(id, t -> {
+            before[0] = t.copy(); // Under the store's write lock, so no other write slips in between
+            change.accept(t);
+        });
+        if (task == null) return null;
+        int fields = TaskField.differences(before[0], task);
+        if (fields != 0) {
+            record(new Edit(id, fields, Edit.valuesOf(before[0], fields), Edit.valuesOf(task, fields)), "Edit");
+        }
+        return task;
+    }
+
+    /** @return the deleted task, or null if there was none */
+    public synchronized Task delete(int id) {
+        Task removed = store.delete(id);
+        if (removed != null) record(new Edit(id, TaskField.ALL, Edit.valuesOf(removed, TaskField.ALL), null), "Delete");
+        return removed;
+    }
+
+    /** Deletes several tasks as one command. */
+    public void deleteAll(Collection<Integer> ids) {
+        group("Delete " + ids.size() + " tasks", () -> {
+            for (int id : ids) delete(id);
+        });
+    }
+
+    /**
+     * Runs {@code edits} (which call this history) and records everything
+     * they change as one command, e.g. a bulk import or a multi-row delete.
+     * Groups do not nest: an inner group joins the outer one.
+     */
+    public synchronized void group(String label, Runnable edits) {
+        if (group != null) {
+            edits.run();
+            return;
+        }
+        group = new ArrayList<>();
+        groupSlots = new HashMap<>();
+        try {
+            edits.run();
+        } finally {
+            List<Edit> recorded = group;
+            group = null;
+            groupSlots = null;
+            if (!recorded.isEmpty()) push(new Command(label, List.copyOf(recorded)));
+        }
+    }
+
+    private void record(Edit edit, String label) {
+        if (group != null) {
+            Integer slot = groupSlots.putIfAbsent(edit.taskId(), group.size());
+            if (slot == null) group.add(edit);
+            else group.set(slot, merge(group.get(slot), edit));
+        } else {
+            push(new Command(label + " #" + edit.taskId(), List.of(edit)));
+        }
+    }
+
+    private void push(Command command) {
+        for (Command dropped : redo) kept -= dropped.edits().size();
+        redo.clear();
+        undo.push(command);
+        kept += command.edits().size();
+        // Always keep the newest command, even if it alone is over the limit
+        while (kept > maxEdits && undo.size() > 1) kept -= undo.removeLast().edits().size();
+    }
+
+    /** One edit with the effect of {@code first} followed by {@code later}. */
+    private static Edit merge(Edit first, Edit later) {
+        int fields = first.fields() | later.fields();
+        return new Edit(first.taskId(), fields,
+                combine(first.before(), first.fields(), later.before(), later.fields(), fields),
+                combine(later.after(), later.fields(), first.after(), first.fields(), fields));
+    }
+
+    /**
+     * The values of {@code fields}: {@code winner}'s where it has them,
+     * {@code other}'s for the rest. A null winner (task absent) wins
+     * outright; so does a null other, unless the winner is only a field edit
+     * of the task that is not there.
+     */
+    private static Object[] combine(Object[] winner, int winnerFields, Object[] other, int otherFields, int fields) {
+        if (winner == null) return null;
+        if (other == null) return ((winnerFields & TaskField.DELETED.bit) != 0) ? winner : null;
+        Object[] values = new Object[Integer.bitCount(fields & ~TaskField.DELETED.bit)];
+        int i = 0;
+        for (TaskField field : TaskField.values()) {
+            if (field == TaskField.DELETED || (fields & field.bit) == 0) continue;
+            values[i++] = ((winnerFields & field.bit) != 0)
+                    ? winner[Edit.slot(winnerFields, field)]
+                    : other[Edit.slot(otherFields, field)];
+        }
+        return values;
+    }
+
+    // --- Undo / redo ---
+
+    /** Reverts the newest command; null if there is none. */
+    public synchronized Result undo() {
+        Command command = undo.poll();
+        if (command == null) return null;
+        redo.push(command);
+        return apply(store, command.label(), command.edits(), false);
+    }
+
+    /** Re-applies the newest undone command; null if there is none. */
+    public synchronized Result redo() {
+        Command command = redo.poll();
+        if (command == null) return null;
+        undo.push(command);
+        return apply(store, command.label(), command.edits(), true);
+    }
+
+    /** Applies a session's commands, oldest first, to {@code target}; for tests and benchmarks. */
+    public static Result replay(List<Command> session, TaskStore target) {
+        List<Edit> all = new ArrayList<>();
+        for (Command command : session) all.addAll(command.edits());
+        return apply(target, "Replay", all, true);
+    }
+
+    private static Result apply(TaskStore target, String label, List<Edit> edits, boolean forward) {
+        Set<Integer> touched = new LinkedHashSet<>();
+        Map<Task, Boolean> removed = new IdentityHashMap<>();
+        for (int i = 0; i < edits.size(); i++) {
+            // Undo walks a group backwards, so edits of the same task unwind in order
+            Edit edit = edits.get(forward ? i : edits.size() - 1 - i);
+            Object[] values = forward ? edit.after() : edit.before();
+            int id = edit.taskId();
+            touched.add(id);
+            if (values == null) {
+                Task gone = target.delete(id);
+                if (gone != null) removed.put(gone, true);
+            } else if (edit.has(TaskField.DELETED)) {
+                Task replaced = target.upsert(edit.toTask(values));
+                if (replaced != null) removed.put(replaced, true);
+            } else {
+                target.modify(id, task -> Edit.applyTo(values, edit.fields(), task));
+            }
+        }
+
+        List<Task> changed = new ArrayList<>(touched.size());
+        for (int id : touched) {
+            Task now = target.get(id);
+            if (now != null) {
+                changed.add(now);
+                removed.remove(now);
+            }
+        }
+        return new Result(label, changed, new ArrayList<>(removed.keySet()));
+    }
+}
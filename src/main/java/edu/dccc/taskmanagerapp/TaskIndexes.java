@@ -0,0 +1,174 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.RangeIndex;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Secondary indexes behind {@link TaskStore#find}: a bitmap per Priority and
+ * per TaskStatus, and a sorted {@link RangeIndex} per date column.
+ * <p>
+ * A filter with a date range starts from that range (O(log n + k)) and checks
+ * the k candidates' priority and status in O(1) each. Without a date range,
+ * the enum bitmaps are ANDed a word (64 tasks) at a time.
+ * <p>
+ * Each indexed task gets a dense slot through one id-to-slot map; the bitmaps,
+ * range indexes and the per-slot columns of indexed values all work in slots,
+ * and {@link #find} turns the hits back into ids. Memory therefore follows
+ * the number of tasks, not the largest id, and a removed task's slot is
+ * reused. Not thread-safe; {@link TaskStore} guards it with its lock.
+ */
+class TaskIndexes {
+
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private int[] idOf = new int[64];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final BitSet present = new BitSet(); // Occupied slots
+    private final BitSet[] byPriority = new BitSet[PRIORITIES.length];
+    private final BitSet[] byStatus = new BitSet[STATUSES.length];
+    private final DateColumn due = new DateColumn();
+    private final DateColumn start = new DateColumn();
+    private final DateColumn completed = new DateColumn();
+    private byte[] priorityOf = new byte[64];
+    private byte[] statusOf = new byte[64];
+
+    TaskIndexes() {
+        for (int i = 0; i < byPriority.length; i++) byPriority[i] = new BitSet();
+        for (int i = 0; i < byStatus.length; i++) byStatus[i] = new BitSet();
+    }
+
+    /** Indexes the task's current values, replacing what was indexed for its id before. */
+    void put(Task task) {
+        int id = task.getTaskId();
+        remove(id);
+        int slot = (freeCount > 0) ? freeSlots[--freeCount] : slots.size();
+        if (slot >= idOf.length) {
+            int capacity = idOf.length + (idOf.length >> 1);
+            idOf = Arrays.copyOf(idOf, capacity);
+            priorityOf = Arrays.copyOf(priorityOf, capacity);
+            statusOf = Arrays.copyOf(statusOf, capacity);
+        }
+        slots.put(id, slot);
+        idOf[slot] = id;
+
+        present.set(slot);
+        int p = task.getPriority().ordinal();
+        int s = task.getStatus().ordinal();
+        priorityOf[slot] = (byte) p;
+        statusOf[slot] = (byte) s;
+        byPriority[p].set(slot);
+        byStatus[s].set(slot);
+        due.add(slot, task.getDueDate());
+        start.add(slot, task.getStartDate());
+        completed.add(slot, task.getCompletedDate());
+    }
+
+    void remove(int id) {
+        Integer boxed = slots.remove(id);
+        if (boxed == null) return;
+        int slot = boxed;
+        present.clear(slot);
+        byPriority[priorityOf[slot]].clear(slot);
+        byStatus[statusOf[slot]].clear(slot);
+        due.remove(slot);
+        start.remove(slot);
+        completed.remove(slot);
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    /** Ids of the tasks that match the filter. */
+    BitSet find(TaskFilter filter) {
+        BitSet hits = findSlots(filter);
+        BitSet ids = new BitSet();
+        for (int slot = hits.nextSetBit(0); slot >= 0; slot = hits.nextSetBit(slot + 1)) ids.set(idOf[slot]);
+        return ids;
+    }
+
+    private BitSet findSlots(TaskFilter filter) {
+        BitSet result = null;
+        result = narrow(result, due, filter.due());
+        result = narrow(result, start, filter.start());
+        result = narrow(result, completed, filter.completed());
+
+        boolean anyPriority = filter.priorities().size() == PRIORITIES.length;
+        boolean anyStatus = filter.statuses().size() == STATUSES.length;
+
+        if (result != null) {
+            // Only the k tasks in the date range are left: check their enums one by one
+            if (anyPriority && anyStatus) return result;
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                if (!filter.priorities().contains(PRIORITIES[priorityOf[slot]])
+                        || !filter.statuses().contains(STATUSES[statusOf[slot]])) {
+                    result.clear(slot);
+                }
+            }
+            return result;
+        }
+
+        result = (BitSet) present.clone();
+        if (!anyPriority) {
+            BitSet allowed = new BitSet();
+            for (Task.Priority p : filter.priorities()) allowed.or(byPriority[p.ordinal()]);
+            result.and(allowed);
+        }
+        if (!anyStatus) {
+            BitSet allowed = new BitSet();
+            for (Task.TaskStatus s : filter.statuses()) allowed.or(byStatus[s.ordinal()]);
+            result.and(allowed);
+        }
+        return result;
+    }
+
+    private static BitSet narrow(BitSet result, DateColumn column, TaskFilter.DateRange range) {
+        if (range == null) return result;
+        BitSet hits = column.select(range);
+        if (result == null) return hits;
+        result.and(hits);
+        return result;
+    }
+
+    /** One date column, by slot: a range index over epoch days, plus the slots that have no date. */
+    private static final class DateColumn {
+        private final RangeIndex index = new RangeIndex();
+        private final BitSet undated = new BitSet();
+        private int[] days = new int[64];
+
+        void add(int slot, LocalDate date) {
+            if (slot >= days.length) days = Arrays.copyOf(days, days.length + (days.length >> 1));
+            if (date == null) {
+                days[slot] = NO_DATE;
+                undated.set(slot);
+            } else {
+                days[slot] = (int) date.toEpochDay();
+                index.add(days[slot], slot);
+            }
+        }
+
+        void remove(int slot) {
+            if (days[slot] == NO_DATE) {
+                undated.clear(slot);
+            } else {
+                index.remove(days[slot], slot);
+            }
+        }
+
+        BitSet select(TaskFilter.DateRange range) {
+            if (range.undated()) return (BitSet) undated.clone();
+            int from = (range.from() == null) ? NO_DATE + 1 : (int) range.from().toEpochDay();
+            int to = (range.to() == null) ? Integer.MAX_VALUE : (int) range.to().toEpochDay();
+            BitSet hits = new BitSet();
+            index.collect(from, to, hits);
+            return hits;
+        }
+    }
+}
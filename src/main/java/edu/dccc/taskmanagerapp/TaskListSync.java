@@ -0,0 +1,72 @@
+package edu.dccc.taskmanagerapp;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sits between the task store and the table's ObservableList and pushes
+ * only the rows that changed.
+ * <p>
+ * The rows are the tasks of the current view (see {@link TaskQuery}); the
+ * controller adds or removes a row as an edit moves a task in or out of it.
+ * Rebuilding the list with clear() + addAll() makes the SortedList re-sort
+ * every row. Here an edit is sent as a single-row replace, and the SortedList
+ * moves it with one binary search. (An extractor "update" event looks
+ * lighter, but SortedList answers it by re-sorting the whole list.) Removals
+ * swap the last row into the gap, so no other row changes index. Rows are
+ * matched by task id, since an edit in the {@link TaskStore} replaces the
+ * task with a new version.
+ */
+public class TaskListSync {
+
+    private final ObservableList<Task> rows = FXCollections.observableArrayList();
+    private final Map<Integer, Integer> positions = new HashMap<>(); // Task id -> row index
+
+    public ObservableList<Task> getRows() { return rows; }
+
+    /** Full replacement, when the view changes (a new search or filter). */
+    public void reset(Collection<Task> tasks) {
+        List<Task> snapshot = new ArrayList<>(tasks);
+        positions.clear();
+        for (int i = 0; i < snapshot.size(); i++) positions.put(snapshot.get(i).getTaskId(), i);
+        rows.setAll(snapshot);
+    }
+
+    public void added(Task task) {
+        if (positions.containsKey(task.getTaskId())) {
+            updated(task);
+            return;
+        }
+        positions.put(task.getTaskId(), rows.size());
+        rows.add(task);
+    }
+
+    /** Replaces the row of the task's id with this version of it. */
+    public void updated(Task task) {
+        Integer index = positions.get(task.getTaskId());
+        if (index == null) {
+            added(task);
+            return;
+        }
+        rows.set(index, task);
+    }
+
+    public void removed(Task task) {
+        Integer index = positions.remove(task.getTaskId());
+        if (index == null) return;
+
+        int last = rows.size() - 1;
+        if (index != last) {
+            Task moved = rows.get(last);
+            rows.set(index, moved);
+            positions.put(moved.getTaskId(), index);
+        }
+        rows.remove(last);
+    }
+}
@@ -8,16 +8,28 @@ import javafx.stage.Stage;
 import java.io.IOException;
 
 public class TaskManagerApplication extends Application {
+    private TaskManagerController controller;
+
     @Override
     public void start(Stage stage) throws IOException {
+        StartupTimer.mark("launch");
         FXMLLoader fxmlLoader = new FXMLLoader(TaskManagerApplication.class.getResource("taskmanager-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 920, 700);
+        controller = fxmlLoader.getController();
         stage.setTitle("Task Manager");
         stage.setScene(scene);
         stage.show();
+        StartupTimer.mark("show"); // The controller marks the first frame and the end of loading
+    }
+
+    @Override
+    public void stop() {
+        // Closing the window must not drop edits still waiting in the write-behind queue
+        if (controller != null) controller.shutdown();
     }
 
     public static void main(String[] args) {
+        StartupTimer.mark("jvm");
         launch();
     }
 }
\ No newline at end of file
@@ -1,19 +1,27 @@
 package edu.dccc.taskmanagerapp;
 
-import edu.dccc.utils.CSVReaderWriter;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
 import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.KeyCombination;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
 
 import java.time.LocalDate;
-import java.util.PriorityQueue;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
 
 public class TaskManagerController {
 
@@ -34,28 +42,63 @@ public class TaskManagerController {
 
     @FXML private TextField txtSearch;
     @FXML private CheckBox chkHideCompleted;
+    @FXML private ComboBox<String> cmbFilterPriority;
+    @FXML private ComboBox<String> cmbFilterStatus;
+    @FXML private ComboBox<String> cmbFilterDue;
     @FXML private ProgressBar progressTasks;
     @FXML private Label lblStats;
     @FXML private Label lblUrgentCount;
     @FXML private Label lblSystemMessage;
     @FXML private Label lblClock;
     @FXML private Button btnSubmit;
-
-    private ObservableList<Task> taskList = FXCollections.observableArrayList();
-    private PriorityQueue<Task> taskQueue = new PriorityQueue<>();
-    private FilteredList<Task> filteredData;
-    private CSVReaderWriter<Task> csvService;
+    @FXML private Button btnUndo;
+    @FXML private Button btnRedo;
+
+    // Holds the visible rows only; pushes per-task deltas instead of rebuilding them on every edit
+    private final TaskListSync taskSync = new TaskListSync();
+    private ObservableList<Task> taskList = taskSync.getRows();
+    // Heap, ids, subject index and live statistics; the controller is just one client of it
+    private TaskStore taskStore = new TaskStore();
+    // Form saves and deletes go through here so they can be undone
+    private TaskHistory history = new TaskHistory(taskStore);
+    // Search-as-you-type: the filter runs once typing pauses, not on every key
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(150));
+    private TaskViewEvent pendingKeystroke; // Timed until refreshTable() shows its results
+    // Ids passing the current search + filters, answered (and cached) by the store
+    private BitSet visibleIds = new BitSet();
+    private TaskQuery activeQuery = TaskQuery.ALL;
+    private String activeSearch = "";
+    // Due-soon/overdue alerts and priority escalation; ticked with the clock label
+    private DeadlineScheduler deadlines;
+    private final Timeline clockTimer = new Timeline(new KeyFrame(Duration.seconds(30), e -> updateClock()));
+    private static final DateTimeFormatter CLOCK_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final String ANY_PRIORITY = "ANY PRIORITY";
+    private static final String ANY_STATUS = "ANY STATUS";
+    private static final String ANY_DUE = "ANY DUE DATE";
+    private static final String DUE_OVERDUE = "OVERDUE";
+    private static final String DUE_TODAY = "DUE TODAY";
+    private static final String DUE_WEEK = "NEXT 7 DAYS";
+    private static final String DUE_MONTH = "NEXT 30 DAYS";
+    private static final String DUE_NONE = "NO DUE DATE";
+    private TaskPersistenceService persistence;
     private final String CSV_FILE = "tasks.csv";
+    // The full load waits for the first frame; until it is done the rows are the read-only hot head
+    private final Runnable firstFrame = this::onFirstFrame;
+    private boolean loadStarted;
+    private boolean storeLoaded;
 
     public void initialize() {
+        StartupTimer.mark("fxml");
         // 1. Setup Table Columns & Custom Sorting
-        colTaskId.setCellValueFactory(new PropertyValueFactory<>("taskId"));
-        colSubject.setCellValueFactory(new PropertyValueFactory<>("subject"));
-        colPriority.setCellValueFactory(new PropertyValueFactory<>("priority"));
-        colStatus.setCellValueFactory(new PropertyValueFactory<>("status"));
-        colStartDate.setCellValueFactory(new PropertyValueFactory<>("startDate"));
-        colDueDate.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
-        colCompletedDate.setCellValueFactory(new PropertyValueFactory<>("completedDate"));
+        // Plain getter calls; PropertyValueFactory looks the getter up reflectively
+        colTaskId.setCellValueFactory(TaskCells.value(Task::getTaskId));
+        colSubject.setCellValueFactory(TaskCells.value(Task::getSubject));
+        colPriority.setCellValueFactory(TaskCells.value(Task::getPriority));
+        colStatus.setCellValueFactory(TaskCells.value(Task::getStatus));
+        colStartDate.setCellValueFactory(TaskCells.value(Task::getStartDate));
+        colDueDate.setCellValueFactory(TaskCells.value(Task::getDueDate));
+        colCompletedDate.setCellValueFactory(TaskCells.value(Task::getCompletedDate));
 
         colPriority.setComparator((p1, p2) -> {
             if (p1 == p2) return 0;
@@ -72,23 +115,30 @@ public class TaskManagerController {
         setupCellFactories();
 
         chkHideCompleted.selectedProperty().addListener((obs, oldVal, newVal) -> refreshTable());
-        csvService = new CSVReaderWriter<>(CSV_FILE, taskQueue, Task.class);
+        setupFilterControls();
+        persistence = new TaskPersistenceService(CSV_FILE, TaskPersistenceService.SaveMode.JOURNAL, () -> taskStore.snapshot(),
+                message -> updateSystemMessage(message, "#e74c3c"));
 
         // 4. Setup Data Pipeline
-        filteredData = new FilteredList<>(taskList, p -> true);
-        SortedList<Task> sortedData = new SortedList<>(filteredData);
-        sortedData.comparatorProperty().bind(taskTable.comparatorProperty());
+        // Rows arrive in id order (see refreshTable); with no column sorted, e.g. after "Clear",
+        // they fall back to the queue's compareTo order, top priority first
+        SortedList<Task> sortedData = new SortedList<>(taskList);
+        sortedData.comparatorProperty().bind(Bindings.createObjectBinding(() -> {
+            Comparator<Task> byColumns = taskTable.getComparator();
+            return (byColumns != null) ? byColumns : Comparator.<Task>naturalOrder();
+        }, taskTable.comparatorProperty()));
+        // The default policy only sorts a SortedList bound to the table's own comparator; this one is bound above
+        taskTable.setSortPolicy(table -> true);
         taskTable.setItems(sortedData);
 
-        loadTasks();
+        showHotHead();
 
-        // 5. Search Logic
+        // 5. Search Logic (debounced; refreshTable() asks the subject index)
+        searchDelay.setOnFinished(e -> refreshTable());
         txtSearch.textProperty().addListener((observable, oldValue, newValue) -> {
+            pendingKeystroke = TaskViewEvent.start(TaskViewEvent.Operation.SEARCH_KEYSTROKE);
             taskTable.getSelectionModel().clearSelection();
-            filteredData.setPredicate(task -> {
-                if (newValue == null || newValue.isEmpty()) return true;
-                return task.getSubject().toLowerCase().contains(newValue.toLowerCase());
-            });
+            searchDelay.playFromStart();
         });
 
         // 6. Enums & Final touches
@@ -96,7 +146,19 @@ public class TaskManagerController {
         comboStatus.setItems(FXCollections.observableArrayList(Task.TaskStatus.values()));
         setupEnumFormatters();
         taskTable.setStyle("-fx-font-size: 12px;");
-        lblClock.setText(LocalDate.now().toString());
+        clockTimer.setCycleCount(Animation.INDEFINITE);
+        clockTimer.play();
+
+        // 7. Undo/redo shortcuts and the full load, once the table is in a scene
+        updateHistoryButtons();
+        taskTable.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene == null) return;
+            scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Z"), this::handleUndo);
+            scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Y"), this::handleRedo);
+            scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Shift+Z"), this::handleRedo);
+            if (!loadStarted) scene.addPostLayoutPulseListener(firstFrame);
+        });
+        StartupTimer.mark("init");
     }
 
     // --- INITIALIZATION HELPERS ---
@@ -120,100 +182,114 @@ public class TaskManagerController {
         });
     }
 
-    private void setupCellFactories() {
-        colPriority.setCellFactory(this::createPriorityCell);
-        colStatus.setCellFactory(this::createStatusCell);
-        colStartDate.setCellFactory(this::createDateCell);
-        colDueDate.setCellFactory(this::createDateCell);
-        colCompletedDate.setCellFactory(this::createDateCell);
-    }
-
-    // --- REUSABLE FACTORY METHODS (GHOST-PROOF) ---
-
-    private TableCell<Task, Task.Priority> createPriorityCell(TableColumn<Task, Task.Priority> col) {
-        return new TableCell<>() {
-            @Override
-            protected void updateItem(Task.Priority item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(item.toString());
-                    switch (item) {
-                        case URGENT -> setStyle("-fx-text-fill: #c0392b; -fx-font-weight: bold; -fx-background-color: #fdf2f2;");
-                        case HIGH -> setStyle("-fx-text-fill: #2980b9; -fx-font-weight: bold;");
-                        case NORMAL -> setStyle("-fx-text-fill: #2c3e50;");
-                        case LOW -> setStyle("-fx-text-fill: #bdc3c7;");
-                    }
-                }
-            }
-        };
-    }
+    private void setupFilterControls() {
+        cmbFilterPriority.getItems().add(ANY_PRIORITY);
+        for (Task.Priority p : Task.Priority.values()) cmbFilterPriority.getItems().add(p.name());
+        cmbFilterStatus.getItems().add(ANY_STATUS);
+        for (Task.TaskStatus s : Task.TaskStatus.values()) cmbFilterStatus.getItems().add(s.name());
+        cmbFilterDue.getItems().addAll(ANY_DUE, DUE_OVERDUE, DUE_TODAY, DUE_WEEK, DUE_MONTH, DUE_NONE);
 
-    private TableCell<Task, LocalDate> createDateCell(TableColumn<Task, LocalDate> col) {
-        return new TableCell<>() {
-            @Override
-            protected void updateItem(LocalDate item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty) {
-                    setText(null);
-                    setStyle("");
-                } else if (item == null) {
-                    setText("TBD");
-                    setStyle("-fx-text-fill: #bdc3c7; -fx-font-style: italic; -fx-font-size: 11px;");
-                } else {
-                    setText(item.toString());
-                    setStyle("-fx-text-fill: #2c3e50; -fx-font-style: normal; -fx-font-size: 11px;");
-                }
-            }
-        };
+        for (ComboBox<String> box : List.of(cmbFilterPriority, cmbFilterStatus, cmbFilterDue)) {
+            box.getSelectionModel().selectFirst();
+            box.valueProperty().addListener((obs, oldVal, newVal) -> refreshTable());
+        }
     }
 
-    private TableCell<Task, Task.TaskStatus> createStatusCell(TableColumn<Task, Task.TaskStatus> col) {
-        return new TableCell<>() {
-            @Override
-            protected void updateItem(Task.TaskStatus item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(item.toString().replace("_", " "));
-                    if (item == Task.TaskStatus.COMPLETED) setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
-                    else if (item == Task.TaskStatus.IN_PROGRESS) setStyle("-fx-text-fill: #2980b9;");
-                    else setStyle("-fx-text-fill: #7f8c8d;");
-                }
-            }
-        };
+    private void setupCellFactories() {
+        // Styles come from pseudo-classes in style.css (see TaskCells), not setStyle
+        colPriority.setCellFactory(TaskCells::priorityCell);
+        colStatus.setCellFactory(TaskCells::statusCell);
+        colStartDate.setCellFactory(TaskCells::dateCell);
+        colDueDate.setCellFactory(TaskCells::dateCell);
+        colCompletedDate.setCellFactory(TaskCells::dateCell);
     }
 
     // --- CORE LOGIC METHODS ---
 
-    private void loadTasks() {
-        // 1. Clear the logic store (PriorityQueue)
-        taskQueue.clear();
-
-        // 2. Load from the CSV file
-        // Note: csvService uses Task.fromCSV internally to handle all 7 columns
-        csvService.loadFromCSV(true);
+    /** The first page of rows from the hot head file, shown until loadTasks() swaps in the whole store. */
+    private void showHotHead() {
+        btnSubmit.setDisable(true);
+        List<Task> head = persistence.loadHead();
+        if (head.isEmpty()) return;
+        // Already in compareTo order; the table is not sorted yet, so it keeps that order
+        taskSync.reset(head);
+        updateSystemMessage("SHOWING THE FIRST " + head.size() + " TASKS, LOADING THE REST...", "#2980b9");
+    }
 
-        // 3. Update the UI pipeline
-        // This moves data: PriorityQueue -> ObservableList -> FilteredList -> TableView
-        refreshTable();
+    private void onFirstFrame() {
+        if (loadStarted) return;
+        loadStarted = true;
+        StartupTimer.mark("frame");
+        updateClock(); // Its first call loads the time zone rules, so not before the first frame
+        // Not started from initialize(): on a small machine the I/O thread would hold up this frame
+        Platform.runLater(() -> {
+            taskTable.getScene().removePostLayoutPulseListener(firstFrame);
+            loadTasks();
+        });
+    }
 
-        // 4. Force the initial sort to match our compareTo logic
-        taskTable.getSortOrder().clear();
-        taskTable.getSortOrder().add(colPriority);
-        colPriority.setSortType(TableColumn.SortType.ASCENDING);
-        taskTable.sort();
+    private void loadTasks() {
+        // 1. Load from the CSV file on the I/O thread, so the window stays responsive
+        // Note: the loader uses Task.fromCSV internally to handle all 7 columns
+        javafx.concurrent.Task<TaskStore> loading = persistence.load();
+        // Mirrored with listeners rather than bind(), so other code can still set these while loading
+        loading.progressProperty().addListener((obs, oldVal, newVal) -> progressTasks.setProgress(newVal.doubleValue()));
+        loading.messageProperty().addListener((obs, oldVal, newVal) -> lblSystemMessage.setText(newVal));
+        btnSubmit.setDisable(true); // Edits made now would be lost when the loaded heap is swapped in
+
+        loading.setOnSucceeded(e -> {
+            btnSubmit.setDisable(false);
+            storeLoaded = true;
+
+            // 2. Swap in the loaded store (heap and indexes were already built off-thread)
+            taskStore = loading.getValue();
+            history = new TaskHistory(taskStore);
+            updateHistoryButtons();
+
+            // 3. Update the UI pipeline
+            // This moves data: TaskStore -> visible ids -> ObservableList -> TableView
+            // (rebuilt only when the view changes; edits are pushed row by row through taskSync)
+            refreshTable();
+
+            // Escalation rules: due tomorrow -> at least HIGH, overdue -> URGENT
+            deadlines = new DeadlineScheduler(taskStore)
+                    .dueSoon(3)
+                    .escalate(1, Task.Priority.HIGH)
+                    .escalate(-1, Task.Priority.URGENT);
+            deadlines.setListener(this::handleDeadlines);
+            deadlines.scheduleAll(taskStore.snapshot());
+
+            // 4. Force the initial sort to match our compareTo logic
+            taskTable.getSortOrder().clear();
+            taskTable.getSortOrder().add(colPriority);
+            colPriority.setSortType(TableColumn.SortType.ASCENDING);
+            taskTable.sort();
+
+            if (taskStore.renumberedOnLoad() > 0) {
+                updateSystemMessage(taskStore.renumberedOnLoad() + " duplicate IDs renumbered in " + CSV_FILE, "#f39c12");
+            } else {
+                updateSystemMessage("Data loaded from " + CSV_FILE, "#2980b9");
+            }
+            deadlines.tick(); // Reports what is already overdue (after the load message)
+            StartupTimer.finish("loaded");
+        });
+        loading.setOnFailed(e -> {
+            btnSubmit.setDisable(false);
+            storeLoaded = true;
+            updateSystemMessage("Could not load " + CSV_FILE, "#e74c3c");
+            StartupTimer.finish("loaded");
+        });
+    }
 
-        updateSystemMessage("Data loaded from " + CSV_FILE, "#2980b9");
+    private void saveTaskToCSV(Task task) {
+        // Journal mode: one appended record per edit instead of a full rewrite
+        persistence.recordUpsert(task);
     }
 
-    private void saveTasksToCSV() {
-        String header = "ID,Subject,Priority,Status,StartDate,DueDate, CompletedDate";
-        csvService.saveToCSVSorted(header);
+    /** Flushes pending saves; called when the app exits. */
+    public void shutdown() {
+        clockTimer.stop();
+        persistence.shutdown();
     }
 
     private void populateForm(Task task) {
@@ -234,21 +310,18 @@ public class TaskManagerController {
         });
     }
 
-    private void refreshTableFromQueue() {
-        taskList.clear();
-        taskList.addAll(taskQueue);
+    private void resortTable() {
+        // taskList is already in sync with the queue; only the view order is reset
         taskTable.sort();
         updateStatistics();
     }
 
     private int generateNextId() {
-        /* * We stream the queue, map to the IDs, find the maximum,
-         * and add 1. If the queue is empty, we start at 1.
+        /*
+         * The store's allocator was seeded with every ID seen during loading, so
+         * this is one atomic increment instead of streaming the queue for its maximum.
          */
-        return taskQueue.stream()
-                .mapToInt(Task::getTaskId)
-                .max()
-                .orElse(0) + 1;
+        return taskStore.nextId();
     }
 
     @FXML
@@ -274,24 +347,27 @@ public class TaskManagerController {
         if (selectedTask != null) {
             /*
              * DATA STRUCTURES LOGIC:
-             * To update an element in a PriorityQueue, we must remove it and re-add it.
              * If we simply change the fields, the internal Heap structure remains
              * out of sync because the Queue doesn't know the 'priority' changed.
+             * A plain PriorityQueue needs remove (O(n)) + add; the indexed heap
+             * knows where the task sits and just sifts it (O(log n)).
              */
 
-            // Step A: Remove the "stale" version from the Heap (O(n))
-            taskQueue.remove(selectedTask);
-
-            // Step B: Update the object properties
-            selectedTask.setSubject(subject);
-            selectedTask.setPriority(priority);
-            selectedTask.setStatus(status); // Logic inside Task.java handles completedDate
-            selectedTask.setStartDate(start);
-            selectedTask.setDueDate(due);
-
-            // Step C: Re-insert to trigger the "sift" process (O(log n))
-            taskQueue.add(selectedTask);
-
+            // Step A: Update the object properties, and
+            // Step B: Move it to its new place in the Heap (O(log n)) - one store call does both
+            // The store answers with the new version of the task; the selected row is the old one
+            Task updated = history.update(selectedTask.getTaskId(), task -> {
+                task.setSubject(subject);
+                task.setPriority(priority);
+                task.setStatus(status); // Logic inside Task.java handles completedDate
+                task.setStartDate(start);
+                task.setDueDate(due);
+            });
+            if (updated != null) {
+                showIfVisible(updated); // Re-filters and re-sorts this row only
+                if (deadlines != null) deadlines.schedule(updated);
+                saveTaskToCSV(updated);
+            }
             lblSystemMessage.setText("Task #" + selectedTask.getTaskId() + " updated.");
         } else {
             // Create a new task with a unique ID
@@ -306,64 +382,200 @@ public class TaskManagerController {
                 newTask.setCompletedDate(LocalDate.now());
             }
 
-            taskQueue.add(newTask);
+            history.create(newTask);
+            showIfVisible(newTask);
+            if (deadlines != null) deadlines.schedule(newTask);
             lblSystemMessage.setText("New Task #" + newId + " added to queue.");
+            saveTaskToCSV(newTask);
         }
 
         // Refresh UI Components
-        refreshTable();     // Synchronizes TableView with PriorityQueue
         handleClearForm();  // Resets input fields
         updateStatistics(); // Recalculates progress bar and urgent count
-        saveTasksToCSV();
+        updateHistoryButtons();
     }
 
     @FXML
     private void handleDeleteTask() {
         Task selected = taskTable.getSelectionModel().getSelectedItem();
-        if (selected != null) {
-            taskQueue.remove(selected);
-            saveTasksToCSV();
-            refreshTableFromQueue();
+        if (!storeLoaded) {
+            updateSystemMessage("Still loading " + CSV_FILE + ", try again in a moment", "#f39c12");
+        } else if (selected != null) {
+            history.delete(selected.getTaskId());
+            taskSync.removed(selected);
+            visibleIds.clear(selected.getTaskId());
+            if (deadlines != null) deadlines.cancel(selected.getTaskId());
+            persistence.recordDelete(selected);
+            updateStatistics();
             updateSystemMessage("Deleted: " + selected.getSubject(), "#e74c3c");
             handleClearForm();
+            updateHistoryButtons();
         } else {
             updateSystemMessage("Select a task to delete", "#f39c12");
         }
     }
 
+    @FXML
+    private void handleUndo() {
+        if (history.canUndo()) showHistoryStep(history.undo(), "Undone");
+        else updateSystemMessage("Nothing to undo", "#f39c12");
+    }
+
+    @FXML
+    private void handleRedo() {
+        if (history.canRedo()) showHistoryStep(history.redo(), "Redone");
+        else updateSystemMessage("Nothing to redo", "#f39c12");
+    }
+
+    /** Pushes the rows an undo or redo touched, like a save or delete would. */
+    private void showHistoryStep(TaskHistory.Result result, String verb) {
+        taskTable.getSelectionModel().clearSelection();
+        for (Task task : result.removed()) {
+            taskSync.removed(task);
+            visibleIds.clear(task.getTaskId());
+            if (deadlines != null) deadlines.cancel(task.getTaskId());
+            persistence.recordDelete(task);
+        }
+        for (Task task : result.changed()) {
+            showIfVisible(task);
+            if (deadlines != null) deadlines.schedule(task);
+            saveTaskToCSV(task);
+        }
+        updateStatistics();
+        updateHistoryButtons();
+        updateSystemMessage(verb + ": " + result.label(), "#8e44ad");
+    }
+
+    private void updateHistoryButtons() {
+        btnUndo.setDisable(!history.canUndo());
+        btnRedo.setDisable(!history.canRedo());
+    }
+
     @FXML
     private void refreshTable() {
-        // 1. Sync the ObservableList with the PriorityQueue
-        // This ensures internal changes (like completedDate) are caught
-        taskList.clear();
-        taskList.addAll(taskQueue);
-
-        // 2. Existing Filter Logic
-        String searchText = txtSearch.getText().toLowerCase();
-        boolean hideDone = chkHideCompleted.isSelected();
-
-        filteredData.setPredicate(task -> {
-            boolean matchesSearch = task.getSubject().toLowerCase().contains(searchText);
-            boolean matchesVisibility = !hideDone || task.getStatus() != Task.TaskStatus.COMPLETED;
-            return matchesSearch && matchesVisibility;
-        });
+        TaskViewEvent event = TaskViewEvent.start(TaskViewEvent.Operation.REFRESH_TABLE);
+        searchDelay.stop();
+        activeSearch = (txtSearch.getText() == null) ? "" : txtSearch.getText();
+        TaskFilter filter = buildFilter();
+        activeQuery = (filter == null && activeSearch.isEmpty()) ? TaskQuery.ALL : TaskQuery.of(filter, activeSearch);
+
+        // The store caches recent views, so toggling back or repeating a search skips the indexes;
+        // only the visible rows are then handed to the table (no predicate over every task)
+        TaskViewEvent search = activeSearch.isEmpty() ? null : TaskViewEvent.start(TaskViewEvent.Operation.SEARCH);
+        visibleIds = taskStore.find(activeQuery);
+        if (search != null) search.finish(visibleIds.cardinality(), activeSearch.length());
+        List<Task> rows = new ArrayList<>(visibleIds.cardinality());
+        for (int id = visibleIds.nextSetBit(0); id >= 0; id = visibleIds.nextSetBit(id + 1)) {
+            Task task = taskStore.get(id);
+            if (task != null) rows.add(task);
+        }
+        taskSync.reset(rows);
 
         updateStatistics();
+
+        event.finish(rows.size(), activeSearch.length());
+        if (pendingKeystroke != null) {
+            pendingKeystroke.finish(rows.size(), activeSearch.length());
+            pendingKeystroke = null;
+        }
+    }
+
+    /** The filter described by the filter controls, or null if they show everything. */
+    private TaskFilter buildFilter() {
+        TaskFilter filter = new TaskFilter();
+        boolean active = false;
+
+        String priority = cmbFilterPriority.getValue();
+        if (priority != null && !priority.equals(ANY_PRIORITY)) {
+            filter.priorities(Task.Priority.valueOf(priority));
+            active = true;
+        }
+        String status = cmbFilterStatus.getValue();
+        if (status != null && !status.equals(ANY_STATUS)) {
+            filter.statuses(Task.TaskStatus.valueOf(status));
+            active = true;
+        }
+        if (chkHideCompleted.isSelected()) {
+            filter.excludeStatus(Task.TaskStatus.COMPLETED);
+            active = true;
+        }
+
+        String due = cmbFilterDue.getValue();
+        LocalDate today = LocalDate.now();
+        if (due != null && !due.equals(ANY_DUE)) {
+            switch (due) {
+                case DUE_OVERDUE -> filter.dueBetween(null, today.minusDays(1));
+                case DUE_TODAY -> filter.dueBetween(today, today);
+                case DUE_WEEK -> filter.dueBetween(today, today.plusDays(7));
+                case DUE_MONTH -> filter.dueBetween(today, today.plusDays(30));
+                case DUE_NONE -> filter.dueUndated();
+            }
+            active = true;
+        }
+        return active ? filter : null;
+    }
+
+    /**
+     * Re-checks one edited or added task against the active view and adds,
+     * updates or removes its row, so the visible set stays exact without
+     * re-running the whole query.
+     */
+    private void showIfVisible(Task task) {
+        boolean visible = activeQuery.matches(task);
+        visibleIds.set(task.getTaskId(), visible);
+        if (visible) taskSync.updated(task);
+        else taskSync.removed(task);
     }
 
     private void updateStatistics() {
-        if (taskList.isEmpty()) {
+        TaskViewEvent event = TaskViewEvent.start(TaskViewEvent.Operation.UPDATE_STATISTICS);
+        // Reads the store's live counters: O(1), however many tasks there are
+        TaskStore.Stats stats = taskStore.stats();
+        int total = stats.total();
+        if (total == 0) {
             lblStats.setText("0/0 Done (0%)");
             progressTasks.setProgress(0);
             lblUrgentCount.setText("Urgent: 0");
+            event.finish(0, 0);
             return;
         }
-        long completed = taskList.stream().filter(t -> t.getStatus() == Task.TaskStatus.COMPLETED).count();
-        long urgent = taskList.stream().filter(t -> t.getPriority() == Task.Priority.URGENT).count();
-        double percent = (double) completed / taskList.size();
-        lblStats.setText(String.format("%d/%d Done (%.0f%%)", completed, taskList.size(), percent * 100));
+        double percent = (double) stats.completed() / total;
+
+        String text = String.format("%d/%d Done (%.0f%%)", stats.completed(), total, percent * 100);
+        if (stats.averageLeadDays().isPresent()) {
+            text += String.format("  |  Avg lead time: %.1f days", stats.averageLeadDays().getAsDouble());
+        }
+        lblStats.setText(text);
         progressTasks.setProgress(percent);
-        lblUrgentCount.setText("Urgent: " + urgent);
+        lblUrgentCount.setText("Urgent: " + stats.urgent() + "  |  Overdue: " + stats.overdue()
+                + "  |  Due this week: " + stats.dueThisWeek());
+        event.finish(total, 0);
+    }
+
+    private void updateClock() {
+        lblClock.setText(LocalDateTime.now().format(CLOCK_FORMAT));
+        if (deadlines != null) deadlines.tick(); // Does nothing until the date changes
+    }
+
+    /** Deadline events of one tick (FX thread): escalated rows are re-sorted and saved. */
+    private void handleDeadlines(List<DeadlineScheduler.DeadlineEvent> events) {
+        int dueSoon = 0;
+        int overdue = 0;
+        int escalated = 0;
+        for (DeadlineScheduler.DeadlineEvent event : events) {
+            switch (event.kind()) {
+                case DUE_SOON -> dueSoon++;
+                case OVERDUE -> overdue++;
+                case ESCALATED -> {
+                    escalated++;
+                    showIfVisible(event.task());
+                    saveTaskToCSV(event.task());
+                }
+            }
+        }
+        if (escalated > 0) updateStatistics();
+        String message = overdue + " overdue, " + dueSoon + " due soon, " + escalated + " escalated";
+        updateSystemMessage(message, (overdue > 0) ? "#e74c3c" : "#f39c12");
     }
 
     private void updateSystemMessage(String message, String color) {
@@ -396,7 +608,7 @@ public class TaskManagerController {
         btnSubmit.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white; -fx-font-weight: bold;");
 
         taskTable.getSortOrder().clear();
-        refreshTableFromQueue();
+        resortTable();
 
         // Only update the message if one was provided
         if (message != null) {
@@ -405,5 +617,13 @@ public class TaskManagerController {
     }
 
     @FXML
-    private void handleExit() { System.exit(0); }
+    private void handleDiagnostics() {
+        DiagnosticsPane.show(taskTable.getScene().getWindow());
+    }
+
+    @FXML
+    private void handleExit() {
+        shutdown();
+        System.exit(0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,313 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.CSVJournal;
+import edu.dccc.utils.CSVReaderWriter;
+import edu.dccc.utils.CSVTokenizer;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs all task file I/O on one background thread so the JavaFX Application
+ * Thread never waits on the disk.
+ * <p>
+ * Loading is a {@link javafx.concurrent.Task} whose progress and message can be
+ * bound to the UI. Saving is write-behind: {@link #requestSave()} only restarts
+ * a short timer, so a burst of edits produces a single write. When the timer
+ * fires, the store's snapshot is taken on the FX thread and the sort + write
+ * happens in the background. The {@link TaskStore} never changes a stored
+ * task (an edit swaps in a new version), so the snapshot cannot change
+ * halfway through the sort or the formatting of a row. Every
+ * write goes through a temp file and an atomic rename, so a crash never
+ * leaves a half-written file.
+ * <p>
+ * In {@link SaveMode#JOURNAL} mode an edit is appended to {@code <file>.journal}
+ * instead (constant cost per edit). The sorted CSV is only rewritten when the
+ * journal gets long and on shutdown, after which the journal is emptied.
+ * <p>
+ * Every rewrite also exports a binary {@link TaskSnapshot}; loading prefers it
+ * whenever it is at least as new as the CSV.
+ * <p>
+ * The first {@link #HOT_HEAD_ROWS} tasks in compareTo order are also kept in
+ * {@code <file>.head}, a CSV of about 15 KB that {@link #loadHead()} reads
+ * on the FX thread, so the window opens with its first page of rows while the
+ * full file loads. It is rewritten with every rewrite, and after a load
+ * finds it missing or older than the CSV.
+ */
+public class TaskPersistenceService {
+
+    public enum SaveMode { REWRITE, JOURNAL }
+
+    public static final String HEADER = "ID,Subject,Priority,Status,StartDate,DueDate, CompletedDate";
+    // A few screens of the table's initial (compareTo) order
+    public static final int HOT_HEAD_ROWS = 200;
+
+    // Files above this size are parsed in parallel chunks; below it the setup is not worth it
+    private static final long PARALLEL_LOAD_THRESHOLD = 64L * 1024 * 1024;
+    private static final Duration SAVE_DELAY = Duration.millis(400);
+    // Continuous editing must not postpone the save forever
+    private static final long MAX_SAVE_DELAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+    // Journal mode: rewrite the snapshot after this many journaled edits
+    private static final long COMPACT_AFTER = 50_000;
+    // Journal mode: fsync after this many records
+    private static final int JOURNAL_SYNC_BATCH = 32;
+
+    private final String filePath;
+    private final Path snapshotPath;
+    private final Path headPath;
+    private final Supplier<Collection<Task>> store;
+    private final Consumer<String> errorReporter;
+    private final CSVJournal<Task> journal; // null in REWRITE mode
+
+    // A single thread keeps loads and saves in order and never overlapping
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PauseTransition saveTimer = new PauseTransition(SAVE_DELAY);
+    // Only the newest snapshot is worth writing; older queued ones are skipped
+    private final AtomicReference<List<Task>> pendingSnapshot = new AtomicReference<>();
+    private long dirtySince = -1;
+    private long journaledSinceCompaction;
+
+    /**
+     * @param store         where snapshots are taken from (read on the FX thread only)
+     * @param errorReporter called on the FX thread when a background save fails
+     */
+    public TaskPersistenceService(String filePath, Supplier<Collection<Task>> store, Consumer<String> errorReporter) {
+        this(filePath, SaveMode.REWRITE, store, errorReporter);
+    }
+
+    public TaskPersistenceService(String filePath, SaveMode mode,
+                                  Supplier<Collection<Task>> store, Consumer<String> errorReporter) {
+        this.filePath = filePath;
+        this.snapshotPath = TaskSnapshot.pathFor(filePath);
+        this.headPath = Path.of(filePath + ".head");
+        this.store = store;
+        this.errorReporter = errorReporter;
+        this.journal = (mode == SaveMode.JOURNAL) ? new CSVJournal<>(filePath + ".journal", JOURNAL_SYNC_BATCH) : null;
+        saveTimer.setOnFinished(e -> flush());
+    }
+
+    /**
+     * Creates and starts a background load. Bind to its progress/message and
+     * pick up the result in {@code setOnSucceeded} (both run on the FX thread).
+     */
+    public javafx.concurrent.Task<TaskStore> load() {
+        javafx.concurrent.Task<TaskStore> loadTask = new javafx.concurrent.Task<>() {
+            @Override
+            protected TaskStore call() throws IOException {
+                updateMessage("LOADING " + filePath + "...");
+                List<Task> rows = new ArrayList<>();
+
+                if (TaskSnapshot.isUsable(snapshotPath, Path.of(filePath))) {
+                    // The binary snapshot is current, so skip text parsing altogether
+                    TaskSnapshot.read(snapshotPath, rows);
+                } else {
+                    CSVReaderWriter<Task> csv = new CSVReaderWriter<>(filePath, rows, Task::new);
+                    csv.setProgressListener((done, total) -> updateProgress(done, total));
+
+                    if (new File(filePath).length() > PARALLEL_LOAD_THRESHOLD) {
+                        csv.loadFromCSVParallel(true);
+                    } else {
+                        csv.loadFromCSV(true);
+                    }
+                }
+
+                // Heap, id allocator, search index and statistics are all built off the FX thread
+                updateMessage("INDEXING " + rows.size() + " TASKS...");
+                TaskStore loaded = new TaskStore(rows);
+
+                // Edits made after the last snapshot live in the journal
+                if (journal != null) {
+                    updateMessage("REPLAYING JOURNAL...");
+                    journal.replay(Task::new, loaded::upsert, loaded::delete);
+                }
+                if (!isHeadUsable()) {
+                    // Picked now, so the head is the file as loaded, not as edited since
+                    List<Task> head = top(loaded.snapshot(), HOT_HEAD_ROWS);
+                    io.execute(() -> writeHead(head));
+                }
+                updateMessage("LOADED " + loaded.size() + " TASKS");
+                return loaded;
+            }
+        };
+        io.execute(loadTask);
+        return loadTask;
+    }
+
+    /**
+     * The hot head, read on the calling thread: the first tasks as of the
+     * last rewrite, already in compareTo order. Edits journaled since then
+     * are not in it, so show it read-only until {@link #load()} is done.
+     * Empty if there is no head or the CSV is newer.
+     */
+    public List<Task> loadHead() {
+        List<Task> rows = new ArrayList<>();
+        if (!isHeadUsable()) return rows;
+        // Not through CSVReaderWriter: on a cold JVM setting up its first Flight Recorder
+        // event costs hundreds of milliseconds, far more than reading the rows
+        try (Reader reader = Files.newBufferedReader(headPath)) {
+            CSVTokenizer tokenizer = new CSVTokenizer(reader);
+            if (!tokenizer.next()) return rows; // Header
+            while (tokenizer.next()) {
+                Task task = new Task();
+                task.fromCSV(tokenizer.row());
+                rows.add(task);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            rows.clear();
+        }
+        return rows;
+    }
+
+    private boolean isHeadUsable() {
+        // Same freshness rule as the binary snapshot
+        try {
+            return Files.exists(headPath) && TaskSnapshot.isUsable(headPath, Path.of(filePath));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void writeHead(List<Task> head) {
+        try {
+            new CSVReaderWriter<>(headPath.toString(), head, Task::new).writeSorted(HEADER, head);
+        } catch (IOException e) {
+            e.printStackTrace(); // Only costs the next start its preview
+        }
+    }
+
+    /** The first {@code n} tasks in compareTo order, without sorting all of them. */
+    private static List<Task> top(Collection<Task> tasks, int n) {
+        PriorityQueue<Task> largest = new PriorityQueue<>(n + 1, Collections.reverseOrder());
+        for (Task task : tasks) {
+            if (largest.size() < n) {
+                largest.add(task);
+            } else if (task.compareTo(largest.peek()) < 0) {
+                largest.poll();
+                largest.add(task);
+            }
+        }
+        return new ArrayList<>(largest);
+    }
+
+    /** Records a created or updated task. FX thread only. */
+    public void recordUpsert(Task task) {
+        if (journal == null) {
+            requestSave();
+            return;
+        }
+        String line = task.toCSV(); // Captured now, so later edits cannot leak into this record
+        journalWrite(() -> journal.appendUpsert(line));
+    }
+
+    /** Records a deleted task. FX thread only. */
+    public void recordDelete(Task task) {
+        if (journal == null) {
+            requestSave();
+            return;
+        }
+        int id = task.getTaskId();
+        journalWrite(() -> journal.appendDelete(id));
+    }
+
+    private interface JournalWrite {
+        void run() throws IOException;
+    }
+
+    private void journalWrite(JournalWrite write) {
+        if (dirtySince < 0) dirtySince = System.nanoTime();
+        io.execute(() -> {
+            try {
+                write.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+                Platform.runLater(() -> errorReporter.accept("JOURNAL WRITE FAILED: " + e.getMessage()));
+            }
+        });
+        if (++journaledSinceCompaction >= COMPACT_AFTER) flush();
+    }
+
+    /** Marks the store dirty and schedules a full rewrite. Call on the FX thread after every edit. */
+    public void requestSave() {
+        long now = System.nanoTime();
+        if (dirtySince < 0) dirtySince = now;
+
+        if (now - dirtySince >= MAX_SAVE_DELAY_NANOS) {
+            flush();
+        } else {
+            saveTimer.playFromStart();
+        }
+    }
+
+    /** Snapshots the store now and queues the write. FX thread only. */
+    public void flush() {
+        saveTimer.stop();
+        if (dirtySince < 0) return;
+        dirtySince = -1;
+        journaledSinceCompaction = 0;
+
+        pendingSnapshot.set(new ArrayList<>(store.get())); // Our own list: writeSorted sorts it in place
+        io.execute(this::writePending);
+    }
+
+    private void writePending() {
+        List<Task> snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot == null) return; // A newer write already took it
+
+        try {
+            new CSVReaderWriter<>(filePath, snapshot, Task::new).writeSorted(HEADER, snapshot);
+            // The CSV is sorted now, so the head is its first rows
+            writeHead(new ArrayList<>(snapshot.subList(0, Math.min(HOT_HEAD_ROWS, snapshot.size()))));
+            // Written after the CSV, so it is only picked up when it is at least as new
+            TaskSnapshot.write(snapshotPath, snapshot);
+            // Compaction: everything journaled so far is now in the snapshot
+            if (journal != null) journal.truncate();
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException too: a bug in sorting or formatting must not lose the save silently
+            e.printStackTrace();
+            Platform.runLater(() -> errorReporter.accept("SAVE FAILED: " + e.getMessage()));
+        }
+    }
+
+    /** Writes any pending edits and waits for the I/O thread to finish. FX thread only. */
+    public void shutdown() {
+        flush();
+        if (journal != null) {
+            io.execute(() -> {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+        io.shutdown();
+        try {
+            io.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
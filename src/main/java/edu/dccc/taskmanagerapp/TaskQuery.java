@@ -0,0 +1,85 @@
+package edu.dccc.taskmanagerapp;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A view of the tasks: an optional {@link TaskFilter} plus an optional
+ * subject search, answered by {@link TaskStore#find(TaskQuery)} as a set of
+ * ids. Queries are values: two queries with equal filters and the same search
+ * text (ignoring case) are equal, so the store can cache their results.
+ * <p>
+ * The dashboard views are predefined ({@link #ALL}, {@link #HIDE_COMPLETED},
+ * {@link #URGENT}); anything else is built ad hoc:
+ * <pre>
+ *   TaskQuery view = TaskQuery.of(new TaskFilter().dueBetween(today, today.plusDays(7)), "report");
+ * </pre>
+ * The filter is copied, so changing it afterwards does not change the query.
+ */
+public final class TaskQuery {
+
+    public static final TaskQuery ALL = named("all", null, null);
+    public static final TaskQuery HIDE_COMPLETED = named("hide-completed",
+            new TaskFilter().excludeStatus(Task.TaskStatus.COMPLETED), null);
+    public static final TaskQuery URGENT = named("urgent", new TaskFilter().priorities(Task.Priority.URGENT), null);
+
+    private final String name;
+    private final TaskFilter filter; // null: every task
+    private final String search;     // lower case; empty: no search
+    private final int fields;
+
+    private TaskQuery(String name, TaskFilter filter, String search) {
+        this.name = name;
+        this.filter = (filter == null) ? null : filter.copy();
+        this.search = (search == null) ? "" : search.toLowerCase(Locale.ROOT);
+        int f = TaskField.DELETED.bit; // Adding or removing a task changes every view
+        if (this.filter != null) f |= this.filter.fields();
+        if (!this.search.isEmpty()) f |= TaskField.SUBJECT.bit;
+        this.fields = f;
+    }
+
+    /** An ad-hoc query; either part may be null (or the search empty) to leave it out. */
+    public static TaskQuery of(TaskFilter filter, String search) {
+        return new TaskQuery(null, filter, search);
+    }
+
+    /** A query with a name for reports and {@link #toString()}; equal to the same query without one. */
+    public static TaskQuery named(String name, TaskFilter filter, String search) {
+        return new TaskQuery(name, filter, search);
+    }
+
+    /** True if this query shows every task. */
+    public boolean isAll() {
+        return filter == null && search.isEmpty();
+    }
+
+    /** Tests one task directly; {@link TaskStore#find(TaskQuery)} gives the same answer from its indexes. */
+    public boolean matches(Task task) {
+        if (filter != null && !filter.matches(task)) return false;
+        if (search.isEmpty()) return true;
+        return task.getSubject() != null && task.getSubject().toLowerCase(Locale.ROOT).contains(search);
+    }
+
+    TaskFilter filter() { return filter; }
+
+    String search() { return search; }
+
+    /** The task fields whose change can move a task in or out of this view, as {@link TaskField} bits. */
+    int fields() { return fields; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TaskQuery other && Objects.equals(filter, other.filter) && search.equals(other.search);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filter, search);
+    }
+
+    @Override
+    public String toString() {
+        if (name != null) return name;
+        return isAll() ? "all" : "query(" + (search.isEmpty() ? "filter" : '"' + search + '"') + ")";
+    }
+}
@@ -0,0 +1,63 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.Metrics;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The id sets of the most recently used {@link TaskQuery}s, for
+ * {@link TaskStore}. Least recently used results are dropped once there are
+ * {@code capacity} of them; a result costs one bit per task id (128 KB at a
+ * million tasks).
+ * <p>
+ * Results are kept exact instead of being thrown away on writes: after a task
+ * changes, each cached query that reads one of the changed fields re-tests
+ * that task and sets or clears its bit. An edit to a due date leaves the
+ * search results alone, and no write costs more than one test per cached
+ * query. The store calls every method under its lock; they are synchronized
+ * only because readers under the shared lock also reorder the LRU list.
+ */
+final class TaskQueryCache {
+
+    private final Map<TaskQuery, BitSet> results;
+
+    TaskQueryCache(int capacity) {
+        results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TaskQuery, BitSet> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** The cached ids (not a copy), or null. */
+    synchronized BitSet get(TaskQuery query) {
+        BitSet ids = results.get(query);
+        Metrics.counter((ids == null) ? "query.cache.misses" : "query.cache.hits").increment();
+        return ids;
+    }
+
+    synchronized void put(TaskQuery query, BitSet ids) {
+        results.put(query, ids);
+    }
+
+    synchronized boolean isEmpty() {
+        return results.isEmpty();
+    }
+
+    /** After {@code task} was added or edited; {@code fields} are the {@link TaskField} bits that changed. */
+    synchronized void changed(Task task, int fields) {
+        if (fields == 0) return;
+        for (Map.Entry<TaskQuery, BitSet> entry : results.entrySet()) {
+            if ((entry.getKey().fields() & fields) != 0) {
+                entry.getValue().set(task.getTaskId(), entry.getKey().matches(task));
+            }
+        }
+    }
+
+    synchronized void removed(int id) {
+        for (BitSet ids : results.values()) ids.clear(id);
+    }
+}
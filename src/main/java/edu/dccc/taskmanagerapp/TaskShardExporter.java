@@ -0,0 +1,85 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.CSVReaderWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Export counterpart to {@link TaskBulkImporter}: splits tasks into one CSV
+ * file per priority or per due month and writes the files in parallel, one
+ * virtual thread each. Every file is written like the main save (sorted,
+ * same header, temp file + atomic rename), so it can be imported again.
+ * <pre>
+ *   TaskShardExporter.export(store.snapshot(), Path.of("out"), "tasks", TaskShardExporter.ShardBy.MONTH);
+ *   // out/tasks-2025-01.csv, out/tasks-2025-02.csv, ..., out/tasks-undated.csv
+ * </pre>
+ */
+public class TaskShardExporter {
+
+    public enum ShardBy {
+        PRIORITY(task -> task.getPriority().name()),
+        /** Due month; tasks without a due date go to "undated". */
+        MONTH(task -> (task.getDueDate() == null) ? "undated" : YearMonth.from(task.getDueDate()).toString());
+
+        private final Function<Task, String> key;
+
+        ShardBy(Function<Task, String> key) {
+            this.key = key;
+        }
+    }
+
+    private TaskShardExporter() { }
+
+    /**
+     * Writes {@code <dir>/<prefix>-<shard>.csv} for every shard that has tasks.
+     * The collection is only read; pass a snapshot if it is being edited.
+     * @return rows written per file
+     */
+    public static Map<Path, Integer> export(Collection<Task> tasks, Path dir, String prefix, ShardBy by)
+            throws IOException, InterruptedException {
+        Map<String, List<Task>> shards = new TreeMap<>();
+        for (Task task : tasks) {
+            shards.computeIfAbsent(by.key.apply(task), k -> new ArrayList<>()).add(task);
+        }
+
+        Map<Path, Integer> written = new TreeMap<>();
+        Map<Path, Future<?>> writes = new TreeMap<>();
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<String, List<Task>> shard : shards.entrySet()) {
+                Path file = dir.resolve(prefix + "-" + shard.getKey() + ".csv");
+                List<Task> rows = shard.getValue();
+                writes.put(file, writers.submit(() -> {
+                    new CSVReaderWriter<>(file.toString(), rows, Task::new)
+                            .writeSorted(TaskPersistenceService.HEADER, rows);
+                    return null;
+                }));
+                written.put(file, rows.size());
+            }
+        }
+
+        // Every shard has been attempted; report the first failure with the others attached
+        IOException failure = null;
+        for (Map.Entry<Path, Future<?>> write : writes.entrySet()) {
+            try {
+                write.getValue().get();
+            } catch (ExecutionException e) {
+                IOException error = new IOException("Could not write " + write.getKey(), e.getCause());
+                if (failure == null) failure = error; else failure.addSuppressed(error);
+            }
+        }
+        if (failure != null) throw failure;
+        return written;
+    }
+}
@@ -0,0 +1,227 @@
+package edu.dccc.taskmanagerapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary, column-oriented snapshot of the task list, written next to the CSV
+ * for fast cold starts.
+ * <p>
+ * Parsing text dates and enum names is what dominates CSV loading. Here every
+ * column is stored as fixed-width numbers that are read back in bulk:
+ * <pre>
+ *   "TSNP" | version | count
+ *   string table: size, then (byte length, UTF-8 bytes) per distinct subject
+ *   int[count]  taskId
+ *   int[count]  subject index into the string table (-1 = null)
+ *   byte[count] priority ordinal
+ *   byte[count] status ordinal
+ *   int[count]  startDate, dueDate, completedDate as epoch days (NULL_DATE = null)
+ * </pre>
+ * Writes use a temp file plus atomic rename, like the CSV.
+ */
+public class TaskSnapshot {
+
+    private static final int MAGIC = 0x54534E50; // "TSNP"
+    private static final int VERSION = 1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final int NULL_SUBJECT = -1;
+    private static final int WRITE_BUFFER = 1 << 20;
+
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+
+    private TaskSnapshot() { }
+
+    /** The snapshot file that belongs to a CSV file, e.g. tasks.csv -> tasks.snapshot. */
+    public static Path pathFor(String csvFile) {
+        String name = csvFile.endsWith(".csv") ? csvFile.substring(0, csvFile.length() - 4) : csvFile;
+        return Path.of(name + ".snapshot");
+    }
+
+    /** True if the snapshot exists and is at least as new as the CSV, so it can be loaded instead. */
+    public static boolean isUsable(Path snapshot, Path csv) throws IOException {
+        if (!Files.exists(snapshot)) return false;
+        if (!Files.exists(csv)) return true;
+        return Files.getLastModifiedTime(snapshot).compareTo(Files.getLastModifiedTime(csv)) >= 0;
+    }
+
+    // --- Export ---
+
+    public static void write(Path file, Collection<Task> tasks) throws IOException {
+        int count = tasks.size();
+        Task[] rows = tasks.toArray(new Task[0]);
+
+        // Deduplicate subjects into the string table
+        Map<String, Integer> index = new HashMap<>();
+        int[] subjectRefs = new int[count];
+        List<String> table = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String subject = rows[i].getSubject();
+            if (subject == null) {
+                subjectRefs[i] = NULL_SUBJECT;
+                continue;
+            }
+            Integer ref = index.get(subject);
+            if (ref == null) {
+                ref = table.size();
+                index.put(subject, ref);
+                table.add(subject);
+            }
+            subjectRefs[i] = ref;
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ColumnWriter out = new ColumnWriter(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(count);
+
+            out.putInt(table.size());
+            for (String subject : table) {
+                byte[] bytes = subject.getBytes(StandardCharsets.UTF_8);
+                out.putInt(bytes.length);
+                out.putBytes(bytes);
+            }
+
+            for (Task t : rows) out.putInt(t.getTaskId());
+            for (int ref : subjectRefs) out.putInt(ref);
+            for (Task t : rows) out.putByte((byte) t.getPriority().ordinal());
+            for (Task t : rows) out.putByte((byte) t.getStatus().ordinal());
+            for (Task t : rows) out.putInt(toEpochDay(t.getStartDate()));
+            for (Task t : rows) out.putInt(toEpochDay(t.getDueDate()));
+            for (Task t : rows) out.putInt(toEpochDay(t.getCompletedDate()));
+            out.flush();
+            channel.force(false);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return (date == null) ? NULL_DATE : (int) date.toEpochDay();
+    }
+
+    // --- Import ---
+
+    /** Reads every task into the target and returns how many were read. */
+    public static int read(Path file, Collection<Task> target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC) throw new IOException(file + " is not a task snapshot");
+            int version = in.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            int count = in.getInt();
+
+            String[] table = new String[in.getInt()];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < table.length; i++) {
+                int len = in.getInt();
+                if (len > scratch.length) scratch = new byte[Math.max(len, scratch.length * 2)];
+                in.get(scratch, 0, len);
+                table[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+            }
+
+            int[] ids = readInts(in, count);
+            int[] subjects = readInts(in, count);
+            byte[] priorities = readBytes(in, count);
+            byte[] statuses = readBytes(in, count);
+            int[] starts = readInts(in, count);
+            int[] dues = readInts(in, count);
+            int[] completions = readInts(in, count);
+
+            // Tasks tend to share dates, so one LocalDate per distinct day is plenty
+            DateCache dates = new DateCache();
+            for (int i = 0; i < count; i++) {
+                target.add(new Task(ids[i],
+                        subjects[i] == NULL_SUBJECT ? null : table[subjects[i]],
+                        PRIORITIES[priorities[i]],
+                        STATUSES[statuses[i]],
+                        dates.get(starts[i]),
+                        dates.get(dues[i]),
+                        dates.get(completions[i])));
+            }
+            return count;
+        }
+    }
+
+    private static int[] readInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static byte[] readBytes(ByteBuffer in, int count) {
+        byte[] values = new byte[count];
+        in.get(values);
+        return values;
+    }
+
+    private static final class DateCache {
+        private final Map<Integer, LocalDate> dates = new HashMap<>();
+
+        LocalDate get(int epochDay) {
+            if (epochDay == NULL_DATE) return null;
+            return dates.computeIfAbsent(epochDay, LocalDate::ofEpochDay);
+        }
+    }
+
+    /** Buffers fixed-width values and hands them to the channel in large blocks. */
+    private static final class ColumnWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER);
+
+        ColumnWriter(FileChannel channel) { this.channel = channel; }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int off = 0;
+            while (off < bytes.length) {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - off);
+                buffer.put(bytes, off, n);
+                off += n;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
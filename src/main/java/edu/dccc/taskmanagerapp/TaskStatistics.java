@@ -0,0 +1,176 @@
+package edu.dccc.taskmanagerapp;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+
+/**
+ * Live aggregates over the task list, kept up to date per edit instead of
+ * re-streaming every task whenever the statistics labels refresh.
+ * <p>
+ * Counters per Priority x Status change in O(1) on each add/update/remove.
+ * Because tasks are edited in place, the values each task was counted with
+ * are remembered, so an update can take back exactly what it added before.
+ * <p>
+ * "Overdue" and "due this week" depend on today's date. Open tasks are also
+ * counted per due date; both numbers are cached and adjusted per edit, and
+ * only rebuilt from those per-day counts (a few hundred dates, not every
+ * task) when the date rolls over.
+ */
+public class TaskStatistics {
+
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+
+    // What a task contributed when it was last counted
+    private record Entry(Task.Priority priority, Task.TaskStatus status, LocalDate dueDate, long leadDays) {
+        boolean isOpen() { return status != Task.TaskStatus.COMPLETED; }
+    }
+
+    private final Clock clock;
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+    private final int[][] counts = new int[PRIORITIES.length][STATUSES.length];
+    private final int[] byPriority = new int[PRIORITIES.length];
+    private final int[] byStatus = new int[STATUSES.length];
+    private final NavigableMap<LocalDate, Integer> openByDueDate = new TreeMap<>();
+    private long leadDaysTotal;
+    private int leadCount;
+
+    private LocalDate today;
+    private LocalDate weekEnd;
+    private int overdue;
+    private int dueThisWeek;
+
+    public TaskStatistics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public TaskStatistics(Clock clock) {
+        this.clock = clock;
+        rollOver();
+    }
+
+    // --- Updates (mirror TaskListSync) ---
+
+    /** Full recount, for the initial load only. */
+    public void reset(Collection<Task> tasks) {
+        entries.clear();
+        for (int[] row : counts) Arrays.fill(row, 0);
+        Arrays.fill(byPriority, 0);
+        Arrays.fill(byStatus, 0);
+        openByDueDate.clear();
+        leadDaysTotal = 0;
+        leadCount = 0;
+        overdue = 0;
+        dueThisWeek = 0;
+        for (Task task : tasks) added(task);
+    }
+
+    public void added(Task task) {
+        if (entries.containsKey(task)) {
+            updated(task);
+            return;
+        }
+        Entry entry = entryOf(task);
+        entries.put(task, entry);
+        count(entry, 1);
+    }
+
+    /** Call after changing a task's fields in place. */
+    public void updated(Task task) {
+        Entry old = entries.get(task);
+        if (old == null) {
+            added(task);
+            return;
+        }
+        Entry entry = entryOf(task);
+        if (entry.equals(old)) return;
+        count(old, -1);
+        entries.put(task, entry);
+        count(entry, 1);
+    }
+
+    public void removed(Task task) {
+        Entry old = entries.remove(task);
+        if (old != null) count(old, -1);
+    }
+
+    private static Entry entryOf(Task task) {
+        long lead = (task.getStartDate() != null && task.getCompletedDate() != null)
+                ? ChronoUnit.DAYS.between(task.getStartDate(), task.getCompletedDate())
+                : -1;
+        return new Entry(task.getPriority(), task.getStatus(), task.getDueDate(), lead);
+    }
+
+    private void count(Entry e, int delta) {
+        counts[e.priority().ordinal()][e.status().ordinal()] += delta;
+        byPriority[e.priority().ordinal()] += delta;
+        byStatus[e.status().ordinal()] += delta;
+
+        if (e.leadDays() >= 0) {
+            leadDaysTotal += delta * e.leadDays();
+            leadCount += delta;
+        }
+
+        if (e.isOpen() && e.dueDate() != null) {
+            rollOver(); // Before the merge, so a rebuild cannot count this change twice
+            openByDueDate.merge(e.dueDate(), delta, (a, b) -> (a + b == 0) ? null : a + b);
+            if (e.dueDate().isBefore(today)) overdue += delta;
+            else if (!e.dueDate().isAfter(weekEnd)) dueThisWeek += delta;
+        }
+    }
+
+    /** Rebuilds the date-dependent counts once per day. */
+    private void rollOver() {
+        LocalDate now = LocalDate.now(clock);
+        if (now.equals(today)) return;
+        today = now;
+        weekEnd = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        overdue = sum(openByDueDate.headMap(today, false));
+        dueThisWeek = sum(openByDueDate.subMap(today, true, weekEnd, true));
+    }
+
+    private static int sum(Map<LocalDate, Integer> perDay) {
+        int total = 0;
+        for (int n : perDay.values()) total += n;
+        return total;
+    }
+
+    // --- Queries (all O(1)) ---
+
+    public int total() { return entries.size(); }
+
+    public int count(Task.Priority priority, Task.TaskStatus status) {
+        return counts[priority.ordinal()][status.ordinal()];
+    }
+
+    public int countByPriority(Task.Priority priority) { return byPriority[priority.ordinal()]; }
+
+    public int countByStatus(Task.TaskStatus status) { return byStatus[status.ordinal()]; }
+
+    /** Open tasks whose due date is before today. */
+    public int overdue() {
+        rollOver();
+        return overdue;
+    }
+
+    /** Open tasks due from today through this Sunday. */
+    public int dueThisWeek() {
+        rollOver();
+        return dueThisWeek;
+    }
+
+    /** Mean days from start date to completion, over tasks that have both. */
+    public OptionalDouble averageLeadDays() {
+        return (leadCount == 0) ? OptionalDouble.empty() : OptionalDouble.of((double) leadDaysTotal / leadCount);
+    }
+}
@@ -0,0 +1,396 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.IdAllocator;
+import edu.dccc.utils.IndexedPriorityQueue;
+import edu.dccc.utils.TrigramIndex;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The task engine without any JavaFX: the priority heap, id allocation, the
+ * subject search index, secondary indexes on priority, status and dates, and
+ * the live statistics, behind one thread-safe API.
+ * The controller is one client; a batch job can fill a list with
+ * {@link edu.dccc.utils.CSVReaderWriter} or {@link TaskSnapshot#read} and
+ * hand it to {@link #TaskStore(Collection)}.
+ * <p>
+ * Concurrency:
+ * <ul>
+ *   <li>Point reads ({@link #get}, {@link #size}, {@link #stats}) and
+ *       {@link #nextId()} never lock: tasks are also kept in a
+ *       ConcurrentHashMap, and statistics are republished as an immutable
+ *       record after every write.</li>
+ *   <li>Scans ({@link #top}, {@link #query}, {@link #search}, {@link #find},
+ *       {@link #snapshot}) share a read lock, so they run alongside each
+ *       other and only wait while a write is in progress.</li>
+ *   <li>Writes take the write lock. Bulk methods take it once per batch, not
+ *       once per task.</li>
+ * </ul>
+ * Writes are copy-on-write: {@link #modify} and {@link #modifyAll} apply
+ * the change to a copy of the stored task and swap the copy into the map,
+ * the heap and the indexes. A stored task is never changed again, so
+ * whatever {@link #get}, {@link #top} or {@link #snapshot} return is a
+ * consistent version that stays as it was, and can be handed to another
+ * thread without copying. The store owns the tasks given to {@link #upsert},
+ * {@link #upsertAll} and the constructor; change them only through
+ * {@link #modify}, never directly.
+ * <p>
+ * Writes and {@link #top} are timed, lock wait included, in
+ * {@link edu.dccc.utils.Metrics} and as {@link TaskStoreEvent}s.
+ */
+public class TaskStore {
+
+    /** Immutable statistics as of the last write (or the last date change). */
+    public record Stats(int total, int completed, int urgent, int overdue, int dueThisWeek,
+                        OptionalDouble averageLeadDays, LocalDate asOf) { }
+
+    // Fair, so a steady stream of overlapping scans cannot starve writers
+    // (a StampedLock read lock let 3 scanning threads lock out the writer indefinitely)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final Map<Integer, Task> byId = new ConcurrentHashMap<>();
+    private final IndexedPriorityQueue<Task> heap;
+    private final IdAllocator ids = new IdAllocator();
+    private final TrigramIndex subjects = new TrigramIndex();
+    private final TaskIndexes indexes = new TaskIndexes();
+    private final TaskStatistics statistics;
+    private final TaskQueryCache queries = new TaskQueryCache(QUERY_CACHE_SIZE);
+    private final Clock clock;
+    private final int renumbered;
+    private volatile Stats stats;
+
+    private static final int QUERY_CACHE_SIZE = 32;
+
+    public TaskStore() {
+        this(List.of());
+    }
+
+    /**
+     * Builds a store from loaded rows. Ids that occur twice (e.g. in a
+     * hand-merged CSV) are renumbered, see {@link #renumberedOnLoad()}.
+     */
+    public TaskStore(Collection<Task> rows) {
+        this(rows, Clock.systemDefaultZone());
+    }
+
+    public TaskStore(Collection<Task> rows, Clock clock) {
+        this.clock = clock;
+
+        // Seed the allocator with every id first, so a renumbered task cannot collide again
+        List<Task> collisions = new ArrayList<>();
+        for (Task task : rows) {
+            if (!ids.claim(task.getTaskId())) collisions.add(task);
+        }
+        for (Task task : collisions) task.setTaskId(ids.next());
+        renumbered = collisions.size();
+
+        heap = new IndexedPriorityQueue<>(Task::getTaskId, rows.size());
+        heap.addAll(rows);
+        subjects.beginBatch(); // Rows arrive in file order, not id order
+        for (Task task : rows) {
+            byId.put(task.getTaskId(), task);
+            subjects.put(task.getTaskId(), task.getSubject());
+            indexes.put(task);
+        }
+        subjects.endBatch();
+        statistics = new TaskStatistics(clock);
+        statistics.reset(rows);
+        publishStats();
+    }
+
+    /** How many duplicate ids were renumbered when the store was built. */
+    public int renumberedOnLoad() { return renumbered; }
+
+    // --- Lock-free reads ---
+
+    /** The current version of the task, or null; a later {@link #modify} does not change it. */
+    public Task get(int id) { return byId.get(id); }
+
+    public int size() { return byId.size(); }
+
+    /** A fresh, unused task id. */
+    public int nextId() { return ids.next(); }
+
+    public Stats stats() {
+        Stats current = stats;
+        if (current.asOf().equals(LocalDate.now(clock))) return current;
+        // Overdue/due-this-week moved with the date: recount once under the lock
+        lock.writeLock().lock();
+        try {
+            publishStats();
+            return stats;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Scans (shared read lock) ---
+
+    /** The first {@code n} tasks in {@link Task#compareTo} order. */
+    public List<Task> top(int n) {
+        TaskStoreEvent event = TaskStoreEvent.start(TaskStoreEvent.Operation.TOP);
+        List<Task> top;
+        lock.readLock().lock();
+        try {
+            top = heap.top(n);
+        } finally {
+            lock.readLock().unlock();
+        }
+        event.finish(top.size(), byId.size());
+        return top;
+    }
+
+    /** Every task the filter accepts, in no particular order. */
+    public List<Task> query(Predicate<? super Task> filter) {
+        lock.readLock().lock();
+        try {
+            List<Task> result = new ArrayList<>();
+            for (Task task : heap) {
+                if (filter.test(task)) result.add(task);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of the tasks whose subject contains {@code text}, ignoring case. */
+    public BitSet search(String text) {
+        lock.readLock().lock();
+        try {
+            return subjects.search(text);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the tasks that match the filter, answered from the secondary
+     * indexes: O(log n + k) when the filter has a date range.
+     */
+    public BitSet find(TaskFilter filter) {
+        lock.readLock().lock();
+        try {
+            return indexes.find(filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the tasks in a view. Results of the last 32 queries are cached
+     * and kept up to date by every write, so switching back to a view, or
+     * repeating a search, costs a copy of the cached set instead of a query.
+     */
+    public BitSet find(TaskQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet ids = queries.get(query);
+            if (ids == null) {
+                ids = indexes.find((query.filter() == null) ? new TaskFilter() : query.filter());
+                if (!query.search().isEmpty()) ids.and(subjects.search(query.search()));
+                queries.put(query, ids);
+            }
+            return (BitSet) ids.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** A copy of all tasks, in heap order. */
+    public List<Task> snapshot() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(heap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Writes (exclusive) ---
+
+    /**
+     * Inserts a task, or replaces the stored task with the same id.
+     * @return the task it replaced, or null
+     */
+    public Task upsert(Task task) {
+        TaskStoreEvent event = TaskStoreEvent.start(TaskStoreEvent.Operation.UPSERT);
+        lock.writeLock().lock();
+        try {
+            Task old = index(task);
+            heap.offer(task);
+            publishStats();
+            return old;
+        } finally {
+            lock.writeLock().unlock();
+            event.finish(1, byId.size());
+        }
+    }
+
+    /** Upserts a batch under a single lock; large batches rebuild the heap once. */
+    public void upsertAll(Collection<Task> tasks) {
+        TaskStoreEvent event = TaskStoreEvent.start(TaskStoreEvent.Operation.UPSERT_ALL);
+        lock.writeLock().lock();
+        subjects.beginBatch();
+        try {
+            for (Task task : tasks) index(task);
+            heap.addAll(tasks);
+            publishStats();
+        } finally {
+            subjects.endBatch();
+            lock.writeLock().unlock();
+            event.finish(tasks.size(), byId.size());
+        }
+    }
+
+    /**
+     * Applies {@code change} to a copy of the stored task, which then takes
+     * the stored task's place and is re-positioned in O(log n). The change
+     * must not alter the id.
+     * @return the new version of the task, or null if there is no task with that id
+     */
+    public Task modify(int id, Consumer<? super Task> change) {
+        TaskStoreEvent event = TaskStoreEvent.start(TaskStoreEvent.Operation.MODIFY);
+        lock.writeLock().lock();
+        try {
+            Task stored = byId.get(id);
+            if (stored == null) return null;
+            Task task = stored.copy();
+            change.accept(task);
+            if (task.getTaskId() != id) throw new IllegalStateException("modify() must not change the task id");
+            replace(stored, task);
+            publishStats();
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+            event.finish(1, byId.size());
+        }
+    }
+
+    /**
+     * {@link #modify} for a batch, e.g. every task a {@link DeadlineScheduler}
+     * tick escalates: one write lock and one subject-index batch for all of
+     * them instead of one each. Each stored task is changed by its entry's
+     * consumer, as in {@link #modify}; the consumers must not alter ids.
+     * @return the new versions of the tasks; ids with no stored task are skipped
+     */
+    public List<Task> modifyAll(Map<Integer, ? extends Consumer<? super Task>> changes) {
+        TaskStoreEvent event = TaskStoreEvent.start(TaskStoreEvent.Operation.MODIFY_ALL);
+        List<Task> changed = new ArrayList<>(changes.size());
+        lock.writeLock().lock();
+        subjects.beginBatch();
+        try {
+            for (Map.Entry<Integer, ? extends Consumer<? super Task>> entry : changes.entrySet()) {
+                int id = entry.getKey();
+                Task stored = byId.get(id);
+                if (stored == null) continue;
+                Task task = stored.copy();
+                entry.getValue().accept(task);
+                if (task.getTaskId() != id) throw new IllegalStateException("modifyAll() must not change task ids");
+                replace(stored, task);
+                changed.add(task);
+            }
+            publishStats();
+            return changed;
+        } finally {
+            subjects.endBatch();
+            lock.writeLock().unlock();
+            event.finish(changed.size(), byId.size());
+        }
+    }
+
+    /** @return the deleted task, or null if there was none */
+    public Task delete(int id) {
+        TaskStoreEvent event = TaskStoreEvent.start(TaskStoreEvent.Operation.DELETE);
+        lock.writeLock().lock();
+        try {
+            Task removed = unindex(id);
+            publishStats();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+            event.finish(1, byId.size());
+        }
+    }
+
+    /** Deletes a batch under a single lock and returns how many tasks existed. */
+    public int deleteAll(Collection<Integer> taskIds) {
+        TaskStoreEvent event = TaskStoreEvent.start(TaskStoreEvent.Operation.DELETE_ALL);
+        lock.writeLock().lock();
+        subjects.beginBatch();
+        try {
+            int deleted = 0;
+            for (int id : taskIds) {
+                if (unindex(id) != null) deleted++;
+            }
+            publishStats();
+            return deleted;
+        } finally {
+            subjects.endBatch();
+            lock.writeLock().unlock();
+            event.finish(taskIds.size(), byId.size());
+        }
+    }
+
+    // --- Internals (write lock held) ---
+
+    /** Everything except the heap, which bulk callers update in one go. */
+    private Task index(Task task) {
+        int id = task.getTaskId();
+        if (id <= 0) throw new IllegalArgumentException("Task ids must be positive: " + id);
+        // Ids from outside (imports, journal replay) must never be handed out by nextId()
+        if (id > ids.highestId()) ids.claim(id);
+
+        Task old = byId.put(id, task);
+        if (old != null && old != task) statistics.removed(old);
+        subjects.put(id, task.getSubject());
+        indexes.put(task);
+        statistics.updated(task);
+        queries.changed(task, TaskField.ALL);
+        return old;
+    }
+
+    /** Swaps a modified copy in for the stored version of the same task. */
+    private void replace(Task stored, Task task) {
+        int id = task.getTaskId();
+        byId.put(id, task);
+        heap.offer(task); // Takes the slot of the stored version and sifts from there
+        subjects.put(id, task.getSubject()); // No-op if the subject did not change
+        indexes.put(task);
+        statistics.removed(stored);
+        statistics.updated(task);
+        queries.changed(task, TaskField.differences(stored, task));
+    }
+
+    private Task unindex(int id) {
+        Task removed = heap.removeByKey(id);
+        if (removed == null) return null;
+        byId.remove(id);
+        subjects.remove(id);
+        indexes.remove(id);
+        statistics.removed(removed);
+        queries.removed(id);
+        return removed;
+    }
+
+    private void publishStats() {
+        stats = new Stats(statistics.total(),
+                statistics.countByStatus(Task.TaskStatus.COMPLETED),
+                statistics.countByPriority(Task.Priority.URGENT),
+                statistics.overdue(),
+                statistics.dueThisWeek(),
+                statistics.averageLeadDays(),
+                LocalDate.now(clock));
+    }
+}
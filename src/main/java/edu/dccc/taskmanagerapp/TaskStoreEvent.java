@@ -0,0 +1,73 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.LatencyHistogram;
+import edu.dccc.utils.Metrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One {@link TaskStore} queue operation, as a Flight Recorder event and in
+ * {@link Metrics} ({@code store.<operation>} latency and
+ * {@code store.<operation>.tasks} counter). The duration includes waiting
+ * for the lock, since that is what the caller experiences.
+ */
+@Name("edu.dccc.TaskStore")
+@Label("Task Store Operation")
+@Category({"Task Manager", "Store"})
+@Description("A write to the task store, or a read of the top of its priority queue")
+final class TaskStoreEvent extends Event {
+
+    enum Operation {
+        UPSERT("upsert"), UPSERT_ALL("upsertAll"), MODIFY("modify"), MODIFY_ALL("modifyAll"),
+        DELETE("delete"), DELETE_ALL("deleteAll"), TOP("top");
+
+        final String label;
+        // Looked up once: these are recorded on every store call
+        final LatencyHistogram latency;
+        final LongAdder tasks;
+
+        Operation(String label) {
+            this.label = label;
+            this.latency = Metrics.latency("store." + label);
+            this.tasks = Metrics.counter("store." + label + ".tasks");
+        }
+    }
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Tasks")
+    @Description("Tasks written, deleted or returned")
+    int tasks;
+
+    @Label("Store Size")
+    int size;
+
+    private transient Operation op;
+    private transient long startNanos; // Not recorded; the event has its own start time
+
+    static TaskStoreEvent start(Operation op) {
+        TaskStoreEvent event = new TaskStoreEvent();
+        event.op = op;
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    void finish(int tasks, int size) {
+        end();
+        op.latency.recordSince(startNanos);
+        op.tasks.add(tasks);
+        if (shouldCommit()) {
+            this.operation = op.label;
+            this.tasks = tasks;
+            this.size = size;
+            commit();
+        }
+    }
+}
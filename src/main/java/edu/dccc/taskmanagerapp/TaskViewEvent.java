@@ -0,0 +1,71 @@
+package edu.dccc.taskmanagerapp;
+
+import edu.dccc.utils.LatencyHistogram;
+import edu.dccc.utils.Metrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Work done on the FX thread to update the task table, as a Flight Recorder
+ * event and as a {@code ui.<operation>} latency in {@link Metrics}. Anything
+ * here delays the next frame, so slow ones show up as a sluggish window.
+ */
+@Name("edu.dccc.TaskView")
+@Label("Task View Update")
+@Category({"Task Manager", "UI"})
+@Description("A refresh of the task table or the statistics bar")
+final class TaskViewEvent extends Event {
+
+    enum Operation {
+        REFRESH_TABLE("refreshTable"),
+        UPDATE_STATISTICS("updateStatistics"),
+        /** The index lookups of a refresh that has search text. */
+        SEARCH("search"),
+        /** From the last keystroke in the search box until its results are filtered in. */
+        SEARCH_KEYSTROKE("searchKeystroke");
+
+        final String label;
+        final LatencyHistogram latency;
+
+        Operation(String label) {
+            this.label = label;
+            this.latency = Metrics.latency("ui." + label);
+        }
+    }
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    @Description("Matching rows (-1 when the table shows everything), or tasks counted for statistics")
+    int rows;
+
+    @Label("Search Length")
+    @Description("Characters in the search box (the text itself is not recorded)")
+    int searchLength;
+
+    private transient Operation op;
+    private transient long startNanos; // Not recorded; the event has its own start time
+
+    static TaskViewEvent start(Operation op) {
+        TaskViewEvent event = new TaskViewEvent();
+        event.op = op;
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    void finish(int rows, int searchLength) {
+        end();
+        op.latency.recordSince(startNanos);
+        if (shouldCommit()) {
+            this.operation = op.label;
+            this.rows = rows;
+            this.searchLength = searchLength;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.dccc.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Cuts a memory-mapped CSV file into record-aligned chunks that can be
+ * parsed independently.
+ * <p>
+ * A chunk boundary must sit right after a '\n' that is not inside a quoted
+ * field. To find those without a sequential pass, every raw slice of the file
+ * is scanned in parallel for its quote parity and for the first newline under
+ * both "starts inside quotes" and "starts outside quotes" assumptions. A short
+ * prefix walk over the slices then picks the right candidate for each one.
+ */
+final class CSVChunker {
+
+    private static final long MIN_CHUNK = 4L * 1024 * 1024;
+    // Keep each mapping well under the 2 GB MappedByteBuffer limit
+    private static final long MAX_CHUNK = 512L * 1024 * 1024;
+
+    private CSVChunker() { }
+
+    /** Scan result for one raw slice of the file. */
+    private record SliceScan(boolean oddQuotes, long newlineIfOutside, long newlineIfInside) { }
+
+    /**
+     * Returns ascending byte offsets {@code [0, b1, ..., size]}; chunk i is
+     * {@code [bounds[i], bounds[i + 1])}.
+     */
+    static long[] split(FileChannel channel, int targetChunks, ForkJoinPool pool) throws IOException {
+        long size = channel.size();
+        if (size == 0) return new long[] {0};
+
+        long chunkSize = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, (size + targetChunks - 1) / targetChunks));
+        int slices = (int) ((size + chunkSize - 1) / chunkSize);
+        if (slices == 1) return new long[] {0, size};
+
+        // 1. Scan every slice in parallel (the first one only contributes its quote parity)
+        List<ForkJoinTask<SliceScan>> scans = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            long from = i * chunkSize;
+            long to = Math.min(size, from + chunkSize);
+            scans.add(pool.submit(() -> scan(channel, from, to)));
+        }
+
+        // 2. Walk the slices in order, carrying the quote state across them
+        List<Long> bounds = new ArrayList<>(slices + 1);
+        bounds.add(0L);
+        boolean inQuotes = false;
+        for (int i = 0; i < slices; i++) {
+            SliceScan scan = scans.get(i).join();
+            if (i > 0) {
+                long newline = inQuotes ? scan.newlineIfInside() : scan.newlineIfOutside();
+                if (newline >= 0 && newline + 1 < size && newline + 1 > bounds.get(bounds.size() - 1)) {
+                    bounds.add(newline + 1);
+                }
+            }
+            if (scan.oddQuotes()) inQuotes = !inQuotes;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    private static SliceScan scan(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        boolean outside = true;   // quote state if the slice starts outside quotes
+        long ifOutside = -1;
+        long ifInside = -1;
+        int limit = buffer.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                outside = !outside;
+            } else if (b == '\n') {
+                // Starting inside quotes flips every state, so one scan serves both cases
+                if (outside && ifOutside < 0) ifOutside = from + i;
+                if (!outside && ifInside < 0) ifInside = from + i;
+            }
+        }
+        return new SliceScan(!outside, ifOutside, ifInside);
+    }
+
+    /** Opens a UTF-8 reader over a mapped chunk. Chunks start after '\n', so no character is split. */
+    static Reader open(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        return new InputStreamReader(new ByteBufferInputStream(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) { this.buffer = buffer; }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() { return buffer.remaining(); }
+    }
+}
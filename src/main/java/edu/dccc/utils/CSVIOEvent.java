@@ -0,0 +1,61 @@
+package edu.dccc.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One CSV load or save, as a Flight Recorder event and in {@link Metrics}
+ * ({@code csv.<operation>} latency, {@code csv.<operation>.rows} and
+ * {@code .bytes} counters).
+ * <pre>
+ *   CSVIOEvent event = CSVIOEvent.start("load", filePath);
+ *   ...
+ *   event.finish(rows, bytes);
+ * </pre>
+ */
+@Name("edu.dccc.CSVIO")
+@Label("CSV Load/Save")
+@Category({"Task Manager", "CSV"})
+@Description("A whole CSV file read or written by CSVReaderWriter")
+final class CSVIOEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("File")
+    String path;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    private transient long startNanos; // Not recorded; the event has its own start time
+
+    static CSVIOEvent start(String operation, String path) {
+        CSVIOEvent event = new CSVIOEvent();
+        event.operation = operation;
+        event.path = path;
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    void finish(long rows, long bytes) {
+        end();
+        Metrics.latency("csv." + operation).recordSince(startNanos);
+        Metrics.counter("csv." + operation + ".rows").add(rows);
+        Metrics.counter("csv." + operation + ".bytes").add(bytes);
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
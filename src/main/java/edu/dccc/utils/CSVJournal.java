@@ -0,0 +1,152 @@
+package edu.dccc.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Append-only change log that sits next to a CSV snapshot.
+ * <p>
+ * Instead of rewriting the whole file on every edit, each change is appended
+ * as one line: {@code U,<item CSV>} for a create or update, and {@code D,<id>}
+ * for a delete. That costs one small write, whatever the file size. At startup
+ * the snapshot is loaded first and the journal is replayed on top of it.
+ * Replaying is idempotent (upserts and deletes by id), so a crash between
+ * writing a new snapshot and {@link #truncate()} does no harm.
+ * <p>
+ * fsync is batched: with {@code syncEvery = n} the log is forced to disk after
+ * every n records (1 = every record, 0 = only on {@link #sync()} and close).
+ */
+public class CSVJournal<T extends CSVTemplate> implements Closeable {
+
+    private static final String UPSERT = "U";
+    private static final String DELETE = "D";
+
+    private final Path path;
+    private final int syncEvery;
+    private FileChannel channel;
+    private int unsynced;
+    private long records;
+
+    public CSVJournal(String filePath, int syncEvery) {
+        this.path = Path.of(filePath);
+        this.syncEvery = syncEvery;
+    }
+
+    /** Records appended since the last truncate, including replayed ones. */
+    public long recordCount() { return records; }
+
+    /**
+     * Replays every complete record. A torn last line (from a crash mid-append)
+     * is cut off first, so it can neither be replayed nor corrupt later appends.
+     * @return the number of records replayed
+     */
+    public long replay(Supplier<T> factory, Consumer<T> onUpsert, IntConsumer onDelete) throws IOException {
+        if (!Files.exists(path)) return 0;
+        repairTail();
+
+        long replayed = 0;
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            CSVTokenizer tokenizer = new CSVTokenizer(reader);
+            while (tokenizer.next()) {
+                CSVRow row = tokenizer.row();
+                if (row.equalsIgnoreCase(0, UPSERT)) {
+                    row.dropLeadingFields(1);
+                    onUpsert.accept(CSVReaderWriter.fill(factory.get(), row));
+                } else if (row.equalsIgnoreCase(0, DELETE)) {
+                    onDelete.accept(row.parseInt(1));
+                } else {
+                    System.err.println("Skipping unknown journal record: " + row);
+                    CSVParseErrorEvent.report(path.toString(), row.lineNumber(), row.toString(), null);
+                    continue;
+                }
+                replayed++;
+            }
+        }
+        records += replayed;
+        return replayed;
+    }
+
+    private void repairTail() throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = file.size();
+            long valid = size;
+            ByteBuffer one = ByteBuffer.allocate(1);
+            // Walk back to the last '\n'; anything after it is an unfinished record
+            while (valid > 0) {
+                one.clear();
+                file.read(one, valid - 1);
+                if (one.get(0) == '\n') break;
+                valid--;
+            }
+            if (valid < size) {
+                System.err.println("Journal " + path + ": dropping " + (size - valid) + " bytes of torn record");
+                file.truncate(valid);
+            }
+        }
+    }
+
+    public void appendUpsert(T item) throws IOException {
+        append(UPSERT + "," + item.toCSV());
+    }
+
+    /** Same as {@link #appendUpsert(CSVTemplate)}, for callers that captured the CSV line earlier. */
+    public void appendUpsert(String csvLine) throws IOException {
+        append(UPSERT + "," + csvLine);
+    }
+
+    public void appendDelete(int id) throws IOException {
+        append(DELETE + "," + id);
+    }
+
+    private void append(String record) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) channel.write(bytes);
+        records++;
+        unsynced++;
+
+        if (syncEvery > 0 && unsynced >= syncEvery) sync();
+    }
+
+    /** Forces appended records to disk. */
+    public void sync() throws IOException {
+        if (channel != null && unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    /** Empties the journal once its changes are safely in a new snapshot. */
+    public void truncate() throws IOException {
+        if (channel == null) {
+            if (!Files.exists(path)) return;
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        channel.truncate(0);
+        channel.force(true);
+        unsynced = 0;
+        records = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            sync();
+            channel.close();
+            channel = null;
+        }
+    }
+}
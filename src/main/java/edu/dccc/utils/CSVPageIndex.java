@@ -0,0 +1,186 @@
+package edu.dccc.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Sparse record index over a CSV file, for reading it a page of records at a
+ * time instead of all at once.
+ * <p>
+ * One pass over the file records the byte offset of every {@code pageRows}-th
+ * record (quoted line breaks and blank lines are handled the same way as in
+ * {@link CSVTokenizer}). That is 8 bytes per page, so a 50M-row file needs
+ * about 1.5 MB of index at 256 rows per page. The index is saved next to the
+ * file as {@code <file>.pages} and reused while the file's size and
+ * modification time are unchanged.
+ * <p>
+ * {@link #readPage} maps just that page's bytes and streams its records to a
+ * {@link CSVRowHandler}. It may be called from several threads at once.
+ */
+public final class CSVPageIndex implements Closeable {
+
+    private static final int MAGIC = 0x43535650; // "CSVP"
+    private static final int VERSION = 1;
+    // Keep each mapping well under the 2 GB MappedByteBuffer limit
+    private static final long WINDOW = 512L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int pageRows;
+    private final int rows;
+    private final long[] pageStarts; // Byte offset of the first record of each page
+
+    private CSVPageIndex(FileChannel channel, long fileSize, int pageRows, int rows, long[] pageStarts) {
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.pageRows = pageRows;
+        this.rows = rows;
+        this.pageStarts = pageStarts;
+    }
+
+    /** Opens the index for {@code csv}, building (and saving) it if there is no current one. */
+    public static CSVPageIndex open(Path csv, boolean hasHeader, int pageRows) throws IOException {
+        if (pageRows <= 0) throw new IllegalArgumentException("pageRows must be positive: " + pageRows);
+        FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long modified = Files.getLastModifiedTime(csv).toMillis();
+            Path sidecar = csv.resolveSibling(csv.getFileName() + ".pages");
+
+            CSVPageIndex index = load(sidecar, channel, size, modified, hasHeader, pageRows);
+            if (index == null) {
+                index = build(channel, size, hasHeader, pageRows);
+                save(sidecar, index, modified, hasHeader);
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Number of records, not counting the header. */
+    public int rows() { return rows; }
+
+    public int pageRows() { return pageRows; }
+
+    public int pages() { return pageStarts.length; }
+
+    /** Streams the records of one page (at most {@link #pageRows()}) to the handler. */
+    public void readPage(int page, CSVRowHandler handler) throws IOException {
+        long from = pageStarts[page];
+        long to = (page + 1 < pageStarts.length) ? pageStarts[page + 1] : fileSize;
+        try (Reader reader = CSVChunker.open(channel, from, to)) {
+            CSVTokenizer tokenizer = new CSVTokenizer(reader);
+            for (int i = 0; i < pageRows && tokenizer.next(); i++) {
+                handler.onRow(tokenizer.row());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // --- Building ---
+
+    private static CSVPageIndex build(FileChannel channel, long size, boolean hasHeader, int pageRows)
+            throws IOException {
+        long[] starts = new long[64];
+        int pages = 0;
+        long rows = 0;
+        boolean headerPending = hasHeader;
+        boolean inQuotes = false;
+        boolean blank = true;
+        long recordStart = 0;
+
+        for (long window = 0; window < size; window += WINDOW) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, window, Math.min(WINDOW, size - window));
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                    blank = false;
+                } else if (b == '\n' && !inQuotes) {
+                    if (!blank) {
+                        // A record ends here (same blank-line rule as CSVTokenizer)
+                        if (headerPending) {
+                            headerPending = false;
+                        } else {
+                            if (rows % pageRows == 0) {
+                                if (pages == starts.length) starts = Arrays.copyOf(starts, pages * 2);
+                                starts[pages++] = recordStart;
+                            }
+                            rows++;
+                        }
+                    }
+                    recordStart = window + i + 1;
+                    blank = true;
+                } else if (blank && !isWhitespace(b)) {
+                    blank = false;
+                }
+            }
+        }
+        // A last record without a trailing newline
+        if (!blank && !headerPending) {
+            if (rows % pageRows == 0) {
+                if (pages == starts.length) starts = Arrays.copyOf(starts, pages + 1);
+                starts[pages++] = recordStart;
+            }
+            rows++;
+        }
+        if (rows > Integer.MAX_VALUE) throw new IOException("Too many records to index: " + rows);
+        return new CSVPageIndex(channel, size, pageRows, (int) rows, Arrays.copyOf(starts, pages));
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    // --- Sidecar file ---
+
+    private static CSVPageIndex load(Path sidecar, FileChannel channel, long size, long modified,
+                                     boolean hasHeader, int pageRows) {
+        if (!Files.exists(sidecar)) return null;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(sidecar))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            if (in.readLong() != size || in.readLong() != modified) return null;
+            if (in.readBoolean() != hasHeader || in.readInt() != pageRows) return null;
+            int rows = in.readInt();
+            long[] starts = new long[in.readInt()];
+            for (int i = 0; i < starts.length; i++) starts[i] = in.readLong();
+            return new CSVPageIndex(channel, size, pageRows, rows, starts);
+        } catch (IOException e) {
+            return null; // Unreadable or truncated: build a new one
+        }
+    }
+
+    private static void save(Path sidecar, CSVPageIndex index, long modified, boolean hasHeader) {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(sidecar)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(index.fileSize);
+            out.writeLong(modified);
+            out.writeBoolean(hasHeader);
+            out.writeInt(index.pageRows);
+            out.writeInt(index.rows);
+            out.writeInt(index.pageStarts.length);
+            for (long start : index.pageStarts) out.writeLong(start);
+        } catch (IOException e) {
+            e.printStackTrace(); // The index still works; it is just rebuilt next time
+        }
+    }
+}
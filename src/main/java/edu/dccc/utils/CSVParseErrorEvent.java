@@ -0,0 +1,45 @@
+package edu.dccc.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A CSV record that could not be turned into an object. Counted in
+ * {@link Metrics} as {@code csv.parse.errors}; the Flight Recorder event
+ * carries the record itself and where it came from.
+ */
+@Name("edu.dccc.CSVParseError")
+@Label("CSV Parse Error")
+@Category({"Task Manager", "CSV"})
+@Description("A malformed CSV record that was skipped or only partly read")
+public final class CSVParseErrorEvent extends Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Line")
+    @Description("Line number in the source, or -1 if unknown")
+    long line;
+
+    @Label("Record")
+    String record;
+
+    @Label("Error")
+    String error;
+
+    /** Counts the error and records an event if Flight Recorder is listening. */
+    public static void report(String source, long line, String record, Throwable error) {
+        Metrics.counter("csv.parse.errors").increment();
+        CSVParseErrorEvent event = new CSVParseErrorEvent();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.line = line;
+            event.record = record;
+            event.error = (error == null) ? null : error.toString();
+            event.commit();
+        }
+    }
+}
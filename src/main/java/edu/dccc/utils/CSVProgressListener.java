@@ -0,0 +1,10 @@
+package edu.dccc.utils;
+
+/**
+ * Receives load progress from {@link CSVReaderWriter}, measured in bytes of the file.
+ * Called from the loading thread, so UI code must hop back to its own thread.
+ */
+@FunctionalInterface
+public interface CSVProgressListener {
+    void onProgress(long bytesDone, long bytesTotal);
+}
@@ -1,64 +1,443 @@
 package edu.dccc.utils;
 
 import java.io.*;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 public class CSVReaderWriter<T extends CSVTemplate & Comparable<T>> { // Note the Comparable constraint
 
+    // Below this, Collections.sort is as fast as building keys
+    private static final int KEY_SORT_THRESHOLD = 10_000;
+    // Rows per formatting task in a parallel save
+    private static final int FORMAT_BLOCK = 32_768;
+
     private Collection<T> storage;
     private String filePath;
-    private Class<T> type;
+    private Supplier<T> factory;
+    private CSVProgressListener progressListener;
 
     public CSVReaderWriter(String filePath, Collection<T> storage, Class<T> type) {
+        this(filePath, storage, reflectiveFactory(type));
+    }
+
+    /**
+     * Preferred constructor: pass a constructor reference (e.g. {@code Task::new})
+     * so that loading does not go through reflection for every row.
+     */
+    public CSVReaderWriter(String filePath, Collection<T> storage, Supplier<T> factory) {
         this.filePath = filePath;
         this.storage = storage;
-        this.type = type;
+        this.factory = factory;
+    }
+
+    public void setProgressListener(CSVProgressListener progressListener) {
+        this.progressListener = progressListener;
     }
 
     public void loadFromCSV(boolean hasHeader) {
-        File file = new File(filePath);
-        if (!file.exists()) return;
+        try {
+            loadFromCSV(hasHeader, row -> storage.add(createItem(row)));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            if (hasHeader) br.readLine();
-
-            String line;
-            while ((line = br.readLine()) != null) {
-                // Ignore empty lines
-                if (line.trim().isEmpty()) continue;
-                //  Look for empty constructor and returns the class we are reading into
-                T item = type.getDeclaredConstructor().newInstance();
-                item.fromCSV(line.split(","));
-                storage.add(item);
+    private T createItem(CSVRow row) {
+        return fill(factory.get(), row);
+    }
+
+    static <I extends CSVTemplate> I fill(I item, CSVRow row) {
+        if (item instanceof CSVRowTemplate fast) {
+            fast.fromCSV(row);
+        } else {
+            // Adapter: older templates still get their String[] of fields
+            item.fromCSV(row.toArray());
+        }
+        return item;
+    }
+
+    public void loadFromCSVParallel(boolean hasHeader) {
+        loadFromCSVParallel(hasHeader, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Load mode for very large files. The file is memory-mapped, split into
+     * record-aligned chunks, and the chunks are parsed on the given pool.
+     * Chunk results are merged in file order, so the storage receives the
+     * same elements as with {@link #loadFromCSV(boolean)}.
+     */
+    public void loadFromCSVParallel(boolean hasHeader, ForkJoinPool pool) {
+        Path path = Path.of(filePath);
+        if (!Files.exists(path)) return;
+
+        CSVIOEvent event = CSVIOEvent.start("load.parallel", filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // A few chunks per worker so that one slow chunk does not stall the rest
+            long[] bounds = CSVChunker.split(channel, pool.getParallelism() * 4, pool);
+
+            List<ForkJoinTask<List<T>>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                boolean skipHeader = hasHeader && i == 0;
+                chunks.add(pool.submit(() -> parseChunk(channel, from, to, skipHeader)));
             }
+
+            List<List<T>> parsed = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                parsed.add(chunks.get(i).join());
+                reportProgress(bounds[i + 1], bounds[bounds.length - 1]);
+            }
+            int rows = mergeIntoStorage(parsed);
+            event.finish(rows, channel.size());
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    private List<T> parseChunk(FileChannel channel, long from, long to, boolean skipHeader) throws IOException {
+        List<T> items = new ArrayList<>();
+        try (Reader reader = CSVChunker.open(channel, from, to)) {
+            CSVTokenizer tokenizer = new CSVTokenizer(reader);
+            if (skipHeader && !tokenizer.next()) return items;
+            while (tokenizer.next()) {
+                items.add(createItem(tokenizer.row()));
+            }
+        }
+        return items;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int mergeIntoStorage(List<List<T>> parsed) {
+        int total = 0;
+        for (List<T> part : parsed) total += part.size();
+
+        if (storage instanceof PriorityQueue<T> queue && queue.comparator() == null) {
+            /*
+             * Calling add() n times costs O(n log n). Instead, heapify everything
+             * once (O(n)) and append it in heap order: each add() then finds its
+             * parent already in place and stops after a single comparison.
+             */
+            Object[] heap = new Object[queue.size() + total];
+            int n = 0;
+            for (Object existing : queue.toArray()) heap[n++] = existing;
+            for (List<T> part : parsed) {
+                for (T item : part) heap[n++] = item;
+            }
+            heapify(heap);
+            queue.clear();
+            for (Object item : heap) queue.add((T) item);
+        } else if (parsed.size() == 1) {
+            storage.addAll(parsed.get(0));
+        } else {
+            // One addAll call lets collections with a bulk path (e.g. IndexedPriorityQueue) use it
+            List<T> all = new ArrayList<>(total);
+            for (List<T> part : parsed) all.addAll(part);
+            storage.addAll(all);
+        }
+        return total;
+    }
+
+    // Bottom-up (Floyd) heap construction, using the same sift rules as PriorityQueue
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> void heapify(Object[] heap) {
+        int n = heap.length;
+        for (int k = (n >>> 1) - 1; k >= 0; k--) {
+            T x = (T) heap[k];
+            int i = k;
+            while (i < (n >>> 1)) {
+                int child = 2 * i + 1;
+                T c = (T) heap[child];
+                int right = child + 1;
+                if (right < n && c.compareTo((T) heap[right]) > 0) c = (T) heap[child = right];
+                if (x.compareTo(c) <= 0) break;
+                heap[i] = c;
+                i = child;
+            }
+            heap[i] = x;
+        }
+    }
+
+    /**
+     * Zero-copy streaming API: hands every record to the callback as a
+     * {@link CSVRow} over the read buffer instead of building objects.
+     * The storage collection is not touched. A missing file reads as empty;
+     * read errors, and whatever the handler throws, go to the caller.
+     */
+    public void loadFromCSV(boolean hasHeader, CSVRowHandler handler) throws IOException {
+        File file = new File(filePath);
+        if (!file.exists()) return;
+
+        long total = file.length();
+        CSVIOEvent event = CSVIOEvent.start("load", filePath);
+        long rows = 0;
+        InputStream in = new FileInputStream(file);
+        if (progressListener != null) in = new ProgressInputStream(in, total, progressListener);
+
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            CSVTokenizer tokenizer = new CSVTokenizer(reader);
+            if (!hasHeader || tokenizer.next()) {
+                while (tokenizer.next()) {
+                    handler.onRow(tokenizer.row());
+                    rows++;
+                }
+            }
+            reportProgress(total, total);
+        } finally {
+            event.finish(rows, total);
+        }
+    }
+
+    private void reportProgress(long done, long total) {
+        if (progressListener != null) progressListener.onProgress(done, total);
+    }
+
     /**
      * Saves the data in a sorted fashion, regardless of how the
      * Collection (like PriorityQueue) stores it internally.
      */
     public void saveToCSVSorted(String header) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filePath))) {
-            if (header != null) pw.println(header);
+        try {
+            // Copy the "scrambled" storage to a temporary List before writing
+            writeSorted(header, new ArrayList<>(storage));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-            // 1. Copy the "scrambled" storage to a temporary List
-            List<T> sortedList = new ArrayList<>(storage);
+    /**
+     * Sorts the given items and writes them crash-safely: the data goes to a
+     * temp file next to the target, is flushed to disk, and then replaces the
+     * target with an atomic rename. A crash mid-write leaves the old file intact.
+     * The list is sorted in place, so pass a copy (e.g. a snapshot taken on another thread).
+     */
+    public void writeSorted(String header, List<T> items) throws IOException {
+        CSVIOEvent event = CSVIOEvent.start("save", filePath);
+        Path target = Path.of(filePath).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        // 1. Sort the list using the item's compareTo logic (Priority -> DueDate)
+        sort(items);
+
+        // 2. Write the now-ordered list to the temp file and force it to disk
+        long bytes;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeLines(channel, header, items);
+            channel.force(true);
+            bytes = channel.size();
+        }
 
-            // 2. Sort the list using the item's compareTo logic (Priority -> DueDate)
-            Collections.sort(sortedList);
+        // 3. Swap it in
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        event.finish(items.size(), bytes);
+    }
 
-            // 3. Write the now-ordered list to the file
-            for (T item : sortedList) {
-                pw.println(item.toCSV());
+    /**
+     * Sorts in compareTo order. Large lists of {@link SortKeyed} items are
+     * sorted as primitive longs instead: the key in the high 32 bits and the
+     * original position in the low 32, so ties keep their order exactly as
+     * with the stable {@link Collections#sort}.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<T>> void sort(List<T> items) {
+        int n = items.size();
+        if (n < KEY_SORT_THRESHOLD || !(items.get(0) instanceof SortKeyed)) {
+            Collections.sort(items);
+            return;
+        }
+        Object[] elements = items.toArray();
+        long[] keys = new long[n];
+        Arrays.parallelSetAll(keys, i -> {
+            long key = (elements[i] instanceof SortKeyed keyed) ? keyed.sortKey() : -1;
+            return (key < 0 || key > Integer.MAX_VALUE) ? -1 : (key << 32) | i;
+        });
+        for (long key : keys) {
+            if (key < 0) { // Something could not be keyed
+                Collections.sort(items);
+                return;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+        }
+        Arrays.parallelSort(keys);
+
+        ListIterator<T> it = items.listIterator();
+        for (long key : keys) {
+            it.next();
+            it.set((T) elements[(int) key]);
+        }
+    }
+
+    /**
+     * Formatting rows (toCSV) is most of a large save. Big lists are formatted
+     * in blocks on the common pool, a bounded number of blocks ahead of the
+     * writer, and the blocks are written in order.
+     */
+    private void writeLines(FileChannel channel, String header, List<T> items) throws IOException {
+        LineWriter out = new LineWriter(channel);
+        if (header != null) out.line(header);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int n = items.size();
+        if (n < 2 * FORMAT_BLOCK || pool.getParallelism() < 2 || !(items instanceof RandomAccess)) {
+            for (T item : items) {
+                out.line(item.toCSV());
+            }
+            out.flush();
+            return;
+        }
+        out.flush();
+
+        ArrayDeque<ForkJoinTask<ByteBuffer>> ahead = new ArrayDeque<>();
+        int next = 0;
+        while (next < n || !ahead.isEmpty()) {
+            while (next < n && ahead.size() < pool.getParallelism() * 2) {
+                int from = next;
+                int to = Math.min(n, from + FORMAT_BLOCK);
+                ahead.add(pool.submit(() -> {
+                    LineWriter block = new LineWriter(null);
+                    for (int i = from; i < to; i++) block.line(items.get(i).toCSV());
+                    return block.buffer.flip();
+                }));
+                next = to;
+            }
+            ByteBuffer block = ahead.poll().join();
+            while (block.hasRemaining()) channel.write(block);
+        }
+    }
+
+    /**
+     * Encodes lines into one reused buffer instead of a PrintWriter call chain
+     * per row. With a channel, a full buffer is written out; without one, the
+     * buffer grows. ASCII (the usual case) is copied char by char; other text
+     * goes through the UTF-8 encoder.
+     */
+    private static final class LineWriter {
+        private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+
+        LineWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void line(String text) throws IOException {
+            int length = text.length();
+            int start = buffer.position();
+            if (buffer.remaining() >= length + NEWLINE.length) {
+                byte[] bytes = buffer.array();
+                int pos = start;
+                for (int i = 0; i < length; i++) {
+                    char c = text.charAt(i);
+                    if (c >= 0x80) break;
+                    bytes[pos++] = (byte) c;
+                }
+                if (pos - start == length) {
+                    buffer.position(pos);
+                    buffer.put(NEWLINE);
+                    return;
+                }
+            }
+            // Not ASCII, or not enough room
+            put(text.getBytes(StandardCharsets.UTF_8));
+            put(NEWLINE);
+        }
+
+        private void put(byte[] data) throws IOException {
+            if (buffer.remaining() < data.length) {
+                if (channel == null) {
+                    int capacity = Math.max(buffer.capacity() * 2, buffer.position() + data.length);
+                    buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+                } else {
+                    flush();
+                    if (buffer.remaining() < data.length) { // Longer than the whole buffer
+                        ByteBuffer large = ByteBuffer.wrap(data);
+                        while (large.hasRemaining()) channel.write(large);
+                        return;
+                    }
+                }
+            }
+            buffer.put(data);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    /** Counts bytes as they are read and reports roughly every megabyte. */
+    private static final class ProgressInputStream extends FilterInputStream {
+        private static final long STEP = 1024 * 1024;
+        private final long total;
+        private final CSVProgressListener listener;
+        private long done;
+        private long nextReport = STEP;
+
+        ProgressInputStream(InputStream in, long total, CSVProgressListener listener) {
+            super(in);
+            this.total = total;
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) advance(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) advance(n);
+            return n;
+        }
+
+        private void advance(long n) {
+            done += n;
+            if (done >= nextReport) {
+                nextReport = done + STEP;
+                listener.onProgress(done, total);
+            }
+        }
+    }
+
+    // Look up the empty constructor once instead of on every row
+    private static <T> Supplier<T> reflectiveFactory(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create " + type.getName(), e);
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " needs an empty constructor", e);
         }
     }
-}
\ No newline at end of file
+}
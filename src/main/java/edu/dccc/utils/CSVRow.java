@@ -0,0 +1,157 @@
+package edu.dccc.utils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * A single CSV record handed out by {@link CSVTokenizer}.
+ * <p>
+ * The row is a flyweight: it does not own its characters, it only remembers
+ * where each field starts and ends inside the tokenizer's buffer. It is reused
+ * for every record, so callers must copy anything they want to keep
+ * (for example with {@link #getString(int)}) before asking for the next row.
+ */
+public final class CSVRow {
+
+    private char[] buf;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count;
+    private long lineNumber;
+
+    CSVRow() { }
+
+    // --- Tokenizer side (package-private) ---
+
+    void reset(char[] buf, long lineNumber) {
+        this.buf = buf;
+        this.lineNumber = lineNumber;
+        this.count = 0;
+    }
+
+    void addField(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    /** Hides the first n fields, e.g. a record-type prefix, so field 0 is the payload's first column. */
+    void dropLeadingFields(int n) {
+        int keep = Math.max(0, count - n);
+        System.arraycopy(starts, count - keep, starts, 0, keep);
+        System.arraycopy(ends, count - keep, ends, 0, keep);
+        count = keep;
+    }
+
+    // --- Raw access ---
+
+    public int fieldCount() { return count; }
+    public long lineNumber() { return lineNumber; }
+
+    public char[] buffer() { return buf; }
+    public int start(int field) { return starts[check(field)]; }
+    public int end(int field) { return ends[check(field)]; }
+    public int length(int field) { return ends[check(field)] - starts[field]; }
+
+    private int check(int field) {
+        if (field < 0 || field >= count) {
+            throw new IndexOutOfBoundsException("Field " + field + " out of " + count + " on line " + lineNumber);
+        }
+        return field;
+    }
+
+    // --- Typed access (no intermediate substrings) ---
+
+    /** Copies the field out of the buffer. This is the only accessor that allocates. */
+    public String getString(int field) {
+        return new String(buf, start(field), length(field));
+    }
+
+    public boolean equalsIgnoreCase(int field, String value) {
+        int s = start(field);
+        int len = length(field);
+        if (len != value.length()) return false;
+        for (int i = 0; i < len; i++) {
+            char a = buf[s + i];
+            char b = value.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) return false;
+        }
+        return true;
+    }
+
+    /** Same contract as {@link Integer#parseInt(String)}, read straight from the buffer. */
+    public int parseInt(int field) {
+        int s = start(field);
+        int len = length(field);
+        // Plain non-negative numbers up to 9 digits cannot overflow, so decode them by hand.
+        if (len > 0 && len <= 9) {
+            int value = digits(s, len);
+            if (value >= 0) return value;
+        }
+        return Integer.parseInt(getString(field));
+    }
+
+    /**
+     * Matches the field against the constant names and returns the one that fits.
+     * Callers should cache the {@code values()} array, since every call to it allocates a copy.
+     */
+    public <E extends Enum<E>> E parseEnum(int field, E[] constants) {
+        int s = start(field);
+        int len = length(field);
+        for (E constant : constants) {
+            String name = constant.name();
+            if (name.length() == len && matches(name, s, len)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + getString(field));
+    }
+
+    private boolean matches(String name, int s, int len) {
+        for (int i = 0; i < len; i++) {
+            if (buf[s + i] != name.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses an ISO date. The common {@code yyyy-MM-dd} shape is decoded by hand;
+     * anything else falls back to {@link LocalDate#parse(CharSequence)}.
+     */
+    public LocalDate parseDate(int field) {
+        int s = start(field);
+        if (length(field) == 10 && buf[s + 4] == '-' && buf[s + 7] == '-') {
+            int year = digits(s, 4);
+            int month = digits(s + 5, 2);
+            int day = digits(s + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) return LocalDate.of(year, month, day);
+        }
+        return LocalDate.parse(getString(field));
+    }
+
+    private int digits(int from, int n) {
+        int value = 0;
+        for (int i = from; i < from + n; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /** Adapter for the legacy {@link CSVTemplate#fromCSV(String[])} contract. */
+    public String[] toArray() {
+        String[] parts = new String[count];
+        for (int i = 0; i < count; i++) parts[i] = getString(i);
+        return parts;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", toArray());
+    }
+}
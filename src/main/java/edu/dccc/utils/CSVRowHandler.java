@@ -0,0 +1,10 @@
+package edu.dccc.utils;
+
+/**
+ * Callback for streaming over a CSV file one record at a time.
+ * The row is reused between calls, so copy out anything you need to keep.
+ */
+@FunctionalInterface
+public interface CSVRowHandler {
+    void onRow(CSVRow row);
+}
@@ -0,0 +1,10 @@
+package edu.dccc.utils;
+
+/**
+ * Zero-copy counterpart to {@link CSVTemplate#fromCSV(String[])}.
+ * Types that implement it are filled straight from the tokenizer buffer;
+ * types that only implement {@link CSVTemplate} still load through an adapter.
+ */
+public interface CSVRowTemplate extends CSVTemplate {
+    void fromCSV(CSVRow row); // Logic for loading without per-field Strings
+}
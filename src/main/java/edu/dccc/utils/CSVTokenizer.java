@@ -0,0 +1,169 @@
+package edu.dccc.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming CSV tokenizer that works directly on a reusable char buffer.
+ * <p>
+ * Each call to {@link #next()} moves to the next non-blank record and exposes
+ * it through a reused {@link CSVRow}. Fields are reported as ranges into the
+ * buffer, so no per-field substrings are created. Quoted fields may contain
+ * commas, line breaks and doubled quotes ({@code ""}); the doubled quotes are
+ * collapsed in place inside the buffer.
+ */
+public class CSVTokenizer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final CSVRow row = new CSVRow();
+    private char[] buf;
+    private int pos;     // start of the next unread record
+    private int limit;   // end of valid data in buf
+    private boolean eof;
+    private long lineNumber;
+
+    public CSVTokenizer(Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CSVTokenizer(Reader in, int bufferSize) {
+        this.in = in;
+        this.buf = new char[Math.max(bufferSize, 64)];
+    }
+
+    /** The current record. Only valid until the next call to {@link #next()}. */
+    public CSVRow row() { return row; }
+
+    /**
+     * Advances to the next record, skipping blank lines.
+     * @return false once the input is exhausted
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int recordEnd = findRecordEnd();
+            if (recordEnd < 0) return false;
+
+            // Strip the line terminator ("\n" or "\r\n") before tokenizing
+            int next = recordEnd < limit ? recordEnd + 1 : recordEnd;
+            int end = recordEnd;
+            if (end > pos && buf[end - 1] == '\r') end--;
+
+            int start = pos;
+            pos = next;
+            lineNumber++;
+            if (isBlank(start, end)) continue;
+
+            tokenize(start, end);
+            return true;
+        }
+    }
+
+    /**
+     * Finds the '\n' that closes the record starting at {@code pos}, ignoring
+     * line breaks inside quotes. Refills (and if needed grows) the buffer so
+     * that the whole record is contiguous. Returns -1 at end of input.
+     */
+    private int findRecordEnd() throws IOException {
+        boolean inQuotes = false;
+        int i = pos;
+        while (true) {
+            for (; i < limit; i++) {
+                char c = buf[i];
+                if (c == '"') inQuotes = !inQuotes;
+                else if (c == '\n' && !inQuotes) return i;
+            }
+            if (eof) return (pos < limit) ? limit : -1;
+
+            int shift = fill();
+            i -= shift;
+        }
+    }
+
+    /** Moves the unread tail to the front of the buffer and reads more. Returns how far data moved. */
+    private int fill() throws IOException {
+        int shift = pos;
+        int remaining = limit - pos;
+        if (shift > 0) {
+            System.arraycopy(buf, pos, buf, 0, remaining);
+            pos = 0;
+            limit = remaining;
+        }
+        if (limit == buf.length) {
+            // A single record is larger than the buffer: grow instead of failing
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) eof = true;
+        else limit += n;
+        return shift;
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(buf[i])) return false;
+        }
+        return true;
+    }
+
+    private void tokenize(int start, int end) {
+        row.reset(buf, lineNumber);
+        int i = start;
+        while (true) {
+            if (i < end && buf[i] == '"') {
+                // Quoted field: copy down over doubled quotes so the range stays contiguous
+                int fieldStart = ++i;
+                int out = i;
+                while (i < end) {
+                    char c = buf[i];
+                    if (c == '"') {
+                        if (i + 1 < end && buf[i + 1] == '"') {
+                            buf[out++] = '"';
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    if (c == '\n') lineNumber++;
+                    buf[out++] = c;
+                    i++;
+                }
+                row.addField(fieldStart, out);
+                // Tolerate stray characters between the closing quote and the delimiter
+                while (i < end && buf[i] != ',') i++;
+            } else {
+                int fieldStart = i;
+                while (i < end && buf[i] != ',') i++;
+                row.addField(fieldStart, i);
+            }
+
+            if (i >= end) return;
+            i++; // skip the ','
+            if (i == end) {
+                row.addField(end, end); // trailing comma means one more empty field
+                return;
+            }
+        }
+    }
+
+    /**
+     * Quotes a value for output if it contains a delimiter, quote or line break,
+     * so that it survives a round trip through this tokenizer.
+     */
+    public static String escape(String value) {
+        if (value == null) return "";
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,115 @@
+package edu.dccc.utils;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe source of unique int ids.
+ * <p>
+ * {@link #next()} is a single atomic increment, so creating tasks in bulk is
+ * linear instead of re-scanning the store for its maximum id on every insert.
+ * {@link #reserve(int)} hands out a contiguous block for batch jobs.
+ * <p>
+ * Ids that come from outside (a loaded or merged file) go through
+ * {@link #claim(int)}, which reports collisions. Claimed ids below
+ * {@link #DENSE_LIMIT} are kept in a bitset (at most 2 MB); the rare larger
+ * ones in a hash set, so one stray id near {@code Integer.MAX_VALUE} costs an
+ * entry, not a bitset up to it. Ids handed out by {@code next()} are tracked
+ * as the range above the last claimed id, so the hot path never touches
+ * either. Once the ids above the highest one are used up, {@code next()}
+ * hands out the lowest free id instead of overflowing.
+ */
+public class IdAllocator {
+
+    /** Claimed ids below this are kept in a bitset, larger ones in a hash set. */
+    public static final int DENSE_LIMIT = 1 << 24;
+
+    private final AtomicInteger high = new AtomicInteger(); // highest id claimed or handed out
+    private final BitSet dense = new BitSet();
+    private final Set<Integer> sparse = new HashSet<>();
+    private int floor; // ids in (floor, high] were handed out by next()/reserve()
+
+    /** Returns a fresh id. Lock-free until the ids above the highest one run out. */
+    public int next() {
+        while (true) {
+            int h = high.get();
+            if (h == Integer.MAX_VALUE) return lowestFree();
+            if (high.compareAndSet(h, h + 1)) return h + 1;
+        }
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids and returns the first. Lock-free.
+     * @throws IllegalStateException if there are not that many ids left above the highest one
+     */
+    public int reserve(int count) {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive: " + count);
+        while (true) {
+            int h = high.get();
+            if (h > Integer.MAX_VALUE - count) throw new IllegalStateException("No block of " + count + " ids left");
+            if (high.compareAndSet(h, h + count)) return h + 1;
+        }
+    }
+
+    /** The highest id claimed or handed out so far. */
+    public int highestId() {
+        return high.get();
+    }
+
+    /**
+     * Registers an id that was not created here, e.g. one read from a CSV.
+     * @return false if the id is already in use (a collision)
+     */
+    public synchronized boolean claim(int id) {
+        if (id <= 0) return false;
+        boolean taken = isClaimed(id) || (id > floor && id <= high.get());
+
+        // Move the allocation range above this id, remembering what next() already gave out
+        while (true) {
+            int h = high.get();
+            markHandedOut(h);
+            if (id <= h) break;
+            if (high.compareAndSet(h, id)) {
+                floor = id;
+                break;
+            }
+        }
+        mark(id);
+        return !taken;
+    }
+
+    /** Every id up to the maximum is taken: reuse the lowest one that is free. */
+    private synchronized int lowestFree() {
+        markHandedOut(high.get());
+        int id = dense.nextClearBit(1);
+        if (id >= DENSE_LIMIT) {
+            id = DENSE_LIMIT;
+            while (sparse.contains(id)) {
+                if (id == Integer.MAX_VALUE) throw new IllegalStateException("All ids are in use");
+                id++;
+            }
+        }
+        mark(id);
+        return id;
+    }
+
+    /** Records (floor, h] as used; next() handed those out. */
+    private void markHandedOut(int h) {
+        if (h <= floor) return;
+        if (floor + 1 < DENSE_LIMIT) dense.set(floor + 1, Math.min(h, DENSE_LIMIT - 1) + 1);
+        // One entry per id handed out up there: bounded by how many, not by how large
+        for (long id = Math.max(floor + 1L, DENSE_LIMIT); id <= h; id++) sparse.add((int) id);
+        floor = h;
+    }
+
+    private boolean isClaimed(int id) {
+        return (id < DENSE_LIMIT) ? dense.get(id) : sparse.contains(id);
+    }
+
+    private void mark(int id) {
+        if (id < DENSE_LIMIT) dense.set(id);
+        else sparse.add(id);
+    }
+}
@@ -0,0 +1,388 @@
+package edu.dccc.utils;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Binary min-heap that also remembers where every element sits, keyed by an
+ * int id (for tasks: {@code Task::getTaskId}).
+ * <p>
+ * A plain {@link java.util.PriorityQueue} has to search the whole array to
+ * remove or re-position one element (O(n)). Here a small id-to-slot table
+ * makes {@link #remove(Object)}, {@link #update(Object)} and
+ * {@link #decreaseKey(Object)} O(log n), and {@link #contains(Object)} O(1).
+ * <p>
+ * Ids are unique: offering an element whose id is already queued replaces
+ * the old element (an upsert). Do not change an element's id while it is queued.
+ */
+public class IndexedPriorityQueue<T extends Comparable<T>> extends AbstractQueue<T> {
+
+    private final ToIntFunction<? super T> keyFunction;
+    private final IdSlotTable slots;
+    private Object[] heap;
+    private int size;
+
+    public IndexedPriorityQueue(ToIntFunction<? super T> keyFunction) {
+        this(keyFunction, 16);
+    }
+
+    public IndexedPriorityQueue(ToIntFunction<? super T> keyFunction, int initialCapacity) {
+        this.keyFunction = keyFunction;
+        this.heap = new Object[Math.max(1, initialCapacity)];
+        this.slots = new IdSlotTable(initialCapacity);
+    }
+
+    // --- Queue basics ---
+
+    @Override
+    public boolean offer(T item) {
+        if (item == null) throw new NullPointerException();
+        int key = keyFunction.applyAsInt(item);
+        int slot = slots.get(key);
+        if (slot >= 0) {
+            // Same id already queued: replace it and let it find its new place
+            heap[slot] = item;
+            sift(slot);
+            return true;
+        }
+        if (size == heap.length) heap = Arrays.copyOf(heap, size + (size >> 1) + 1);
+        siftUp(size++, item);
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        if (size == 0) return null;
+        T top = elementAt(0);
+        removeAt(0);
+        return top;
+    }
+
+    @Override
+    public T peek() {
+        return (size == 0) ? null : elementAt(0);
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        slots.clear();
+    }
+
+    // --- Keyed operations (O(1) lookup, O(log n) repair) ---
+
+    public boolean containsKey(int key) {
+        return slots.get(key) >= 0;
+    }
+
+    public T getByKey(int key) {
+        int slot = slots.get(key);
+        return (slot < 0) ? null : elementAt(slot);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int slot = indexOf(o);
+        if (slot < 0) return false;
+        removeAt(slot);
+        return true;
+    }
+
+    public T removeByKey(int key) {
+        int slot = slots.get(key);
+        if (slot < 0) return null;
+        T removed = elementAt(slot);
+        removeAt(slot);
+        return removed;
+    }
+
+    /**
+     * Re-positions an element after its sort fields changed in place.
+     * Works in either direction. Returns false if the element is not queued.
+     */
+    public boolean update(T item) {
+        int slot = indexOf(item);
+        if (slot < 0) return false;
+        sift(slot);
+        return true;
+    }
+
+    /** Cheaper {@link #update} for when the element can only have moved towards the head. */
+    public boolean decreaseKey(T item) {
+        int slot = indexOf(item);
+        if (slot < 0) return false;
+        siftUp(slot, elementAt(slot));
+        return true;
+    }
+
+    /**
+     * Re-positions many changed elements. When a large share of the queue
+     * changed, one O(n) heapify is cheaper than k separate O(log n) repairs.
+     */
+    public void updateAll(Collection<? extends T> changed) {
+        if ((long) changed.size() * log2(size) > size) {
+            heapify();
+        } else {
+            for (T item : changed) update(item);
+        }
+    }
+
+    /** Bulk insert: appends everything and rebuilds the heap once if that is cheaper. */
+    @Override
+    public boolean addAll(Collection<? extends T> items) {
+        if (items == this) throw new IllegalArgumentException();
+        if (items.size() < size) return super.addAll(items);
+
+        if (heap.length < size + items.size()) heap = Arrays.copyOf(heap, size + items.size());
+        for (T item : items) {
+            int key = keyFunction.applyAsInt(item);
+            int slot = slots.get(key);
+            if (slot >= 0) {
+                heap[slot] = item;
+            } else {
+                heap[size] = item;
+                slots.put(key, size++);
+            }
+        }
+        heapify();
+        return !items.isEmpty();
+    }
+
+    /**
+     * The first {@code n} elements in priority order, without polling.
+     * Walks the heap best-first with a small frontier: O(n log n), independent of size().
+     */
+    public List<T> top(int n) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(n, size)));
+        if (n <= 0 || size == 0) return result;
+
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> elementAt(a).compareTo(elementAt(b)));
+        frontier.add(0);
+        while (result.size() < n && !frontier.isEmpty()) {
+            int slot = frontier.poll();
+            result.add(elementAt(slot));
+            int child = 2 * slot + 1;
+            if (child < size) frontier.add(child);
+            if (child + 1 < size) frontier.add(child + 1);
+        }
+        return result;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * Iterates over a snapshot in heap (not sorted) order, like PriorityQueue.
+     * {@code Iterator.remove()} is supported and costs O(log n).
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Object[] snapshot = toArray();
+        return new Iterator<>() {
+            private int next;
+            private T last;
+
+            @Override public boolean hasNext() { return next < snapshot.length; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (next >= snapshot.length) throw new NoSuchElementException();
+                return last = (T) snapshot[next++];
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) throw new IllegalStateException();
+                IndexedPriorityQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    // --- Heap internals ---
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int slot) {
+        return (T) heap[slot];
+    }
+
+    private int indexOf(Object o) {
+        if (o == null) return -1;
+        int slot;
+        try {
+            @SuppressWarnings("unchecked")
+            T item = (T) o;
+            slot = slots.get(keyFunction.applyAsInt(item));
+        } catch (ClassCastException e) {
+            return -1;
+        }
+        // Same id but a different object (e.g. a stale copy) is not a match
+        return (slot >= 0 && heap[slot].equals(o)) ? slot : -1;
+    }
+
+    private void removeAt(int slot) {
+        T removed = elementAt(slot);
+        slots.remove(keyFunction.applyAsInt(removed));
+        int last = --size;
+        if (slot == last) {
+            heap[last] = null;
+            return;
+        }
+        T moved = elementAt(last);
+        heap[last] = null;
+        heap[slot] = moved;
+        sift(slot);
+    }
+
+    private void sift(int slot) {
+        T item = elementAt(slot);
+        if (slot > 0 && item.compareTo(elementAt((slot - 1) >>> 1)) < 0) {
+            siftUp(slot, item);
+        } else {
+            siftDown(slot, item);
+        }
+    }
+
+    private void siftUp(int k, T item) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            T p = elementAt(parent);
+            if (item.compareTo(p) >= 0) break;
+            place(k, p);
+            k = parent;
+        }
+        place(k, item);
+    }
+
+    private void siftDown(int k, T item) {
+        int half = size >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            T c = elementAt(child);
+            int right = child + 1;
+            if (right < size && c.compareTo(elementAt(right)) > 0) c = elementAt(child = right);
+            if (item.compareTo(c) <= 0) break;
+            place(k, c);
+            k = child;
+        }
+        place(k, item);
+    }
+
+    private void heapify() {
+        for (int k = (size >>> 1) - 1; k >= 0; k--) siftDown(k, elementAt(k));
+    }
+
+    private void place(int slot, T item) {
+        heap[slot] = item;
+        slots.put(keyFunction.applyAsInt(item), slot);
+    }
+
+    private static int log2(int n) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+    }
+
+    /**
+     * Open-addressing int-to-int table (id -> heap slot), so lookups do not box.
+     * Uses linear probing with backward-shift deletion, so there are no tombstones.
+     */
+    private static final class IdSlotTable {
+        private int[] keys;
+        private int[] values; // heap slot + 1; 0 marks an empty bucket
+        private int count;
+
+        IdSlotTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+            keys = new int[capacity];
+            values = new int[capacity];
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                int v = values[i];
+                if (v == 0) return -1;
+                if (keys[i] == key) return v - 1;
+            }
+        }
+
+        void put(int key, int slot) {
+            if ((count + 1) * 2 > keys.length) grow();
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (values[i] == 0) {
+                    keys[i] = key;
+                    values[i] = slot + 1;
+                    count++;
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = slot + 1;
+                    return;
+                }
+            }
+        }
+
+        void remove(int key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (true) {
+                if (values[i] == 0) return;
+                if (keys[i] == key) break;
+                i = (i + 1) & mask;
+            }
+            values[i] = 0;
+            count--;
+            // Shift later entries of the same probe run back into the gap
+            for (int j = (i + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean reachable = (i <= j) ? (home <= i || home > j) : (home <= i && home > j);
+                if (reachable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    values[j] = 0;
+                    i = j;
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(values, 0);
+            count = 0;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != 0) put(oldKeys[i], oldValues[i] - 1);
+            }
+        }
+    }
+}
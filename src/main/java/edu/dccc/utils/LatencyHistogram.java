@@ -0,0 +1,87 @@
+package edu.dccc.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, cheap enough to record
+ * every call of a hot path.
+ * <p>
+ * Buckets are log-linear: each power of two is split into 8 buckets, so a
+ * percentile is off by at most 12.5%, and the whole range from 1 ns to
+ * centuries fits in under 500 counters (4 KB). Recording is one array
+ * increment plus two adders; reads while others record are approximate.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // Values below 16 get a bucket each; above that, 8 buckets per power of two
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR + (63 - (SUB_BITS + 1)) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        count.increment();
+        total.add(nanos);
+        if (nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** Records the time since {@code startNanos} (a {@link System#nanoTime()} value) and returns it. */
+    public long recordSince(long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        record(nanos);
+        return nanos;
+    }
+
+    public long count() { return count.sum(); }
+
+    public long maxNanos() { return max.get(); }
+
+    public double meanNanos() {
+        long n = count.sum();
+        return (n == 0) ? 0 : (double) total.sum() / n;
+    }
+
+    /** The upper bound of the bucket holding the {@code q}-quantile (0 &lt; q &le; 1), or 0 if empty. */
+    public long percentileNanos(double q) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < LINEAR) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos); // >= SUB_BITS + 1
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - (SUB_BITS + 1)) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
@@ -0,0 +1,75 @@
+package edu.dccc.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of named counters and {@link LatencyHistogram}s.
+ * <p>
+ * Metrics are created on first use and live until the process exits, so
+ * instrumented code just asks for them by name:
+ * <pre>
+ *   Metrics.counter("csv.load.rows").add(rows);
+ *   Metrics.latency("csv.load").recordSince(started);
+ * </pre>
+ * Names are dotted, most general part first; {@link #report()} lists them in
+ * name order, so related metrics end up next to each other. Hot paths should
+ * keep the returned object in a field instead of looking it up per call.
+ */
+public final class Metrics {
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, LatencyHistogram> LATENCIES = new ConcurrentSkipListMap<>();
+    private static volatile LocalDateTime since = now();
+
+    private Metrics() { }
+
+    public static LongAdder counter(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return (counter != null) ? counter : COUNTERS.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    public static LatencyHistogram latency(String name) {
+        LatencyHistogram histogram = LATENCIES.get(name);
+        return (histogram != null) ? histogram : LATENCIES.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /** Zeroes every metric; the names stay registered. */
+    public static void reset() {
+        COUNTERS.values().forEach(LongAdder::reset);
+        LATENCIES.values().forEach(LatencyHistogram::reset);
+        since = now();
+    }
+
+    /** A plain-text table of every counter and latency, for a diagnostics view or a bug report. */
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Metrics from %s to %s%n%n", since, now()));
+
+        out.append(String.format("%-32s %15s%n", "COUNTER", "VALUE"));
+        COUNTERS.forEach((name, counter) -> out.append(String.format("%-32s %,15d%n", name, counter.sum())));
+
+        out.append(String.format("%n%-32s %9s %10s %10s %10s %10s %10s%n",
+                "LATENCY (ms)", "COUNT", "MEAN", "P50", "P90", "P99", "MAX"));
+        LATENCIES.forEach((name, h) -> out.append(String.format("%-32s %,9d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                name, h.count(), h.meanNanos() / 1e6, h.percentileNanos(0.50) / 1e6,
+                h.percentileNanos(0.90) / 1e6, h.percentileNanos(0.99) / 1e6, h.maxNanos() / 1e6)));
+        return out.toString();
+    }
+
+    /** Writes {@link #report()} to {@code file}, replacing it. */
+    public static void dump(Path file) throws IOException {
+        Files.writeString(file, report(), StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+}
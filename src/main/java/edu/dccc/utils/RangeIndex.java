@@ -0,0 +1,88 @@
+package edu.dccc.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sorted secondary index from an int key (e.g. a date as epoch day) to the
+ * ids that have that key.
+ * <p>
+ * Keys live in a {@link TreeMap}, each with a sorted posting list of ids, so
+ * a range query costs O(log n) to find the first key plus O(k) for the k
+ * matching ids, instead of testing every row.
+ */
+public class RangeIndex {
+
+    private final NavigableMap<Integer, Posting> postings = new TreeMap<>();
+    private int size;
+
+    /** Number of (key, id) pairs. */
+    public int size() { return size; }
+
+    public void add(int key, int id) {
+        if (postings.computeIfAbsent(key, k -> new Posting()).add(id)) size++;
+    }
+
+    public void remove(int key, int id) {
+        Posting posting = postings.get(key);
+        if (posting == null || !posting.remove(id)) return;
+        size--;
+        if (posting.size == 0) postings.remove(key);
+    }
+
+    /** Sets the bit of every id whose key is in {@code [from, to]} (both inclusive). */
+    public void collect(int from, int to, BitSet into) {
+        if (from > to) return;
+        for (Posting posting : postings.subMap(from, true, to, true).values()) {
+            for (int i = 0; i < posting.size; i++) into.set(posting.ids[i]);
+        }
+    }
+
+    /** Number of ids whose key is in {@code [from, to]}; costs one step per distinct key. */
+    public int count(int from, int to) {
+        if (from > to) return 0;
+        int total = 0;
+        for (Map.Entry<Integer, Posting> e : postings.subMap(from, true, to, true).entrySet()) {
+            total += e.getValue().size;
+        }
+        return total;
+    }
+
+    public void clear() {
+        postings.clear();
+        size = 0;
+    }
+
+    /** Sorted ids for one key. */
+    private static final class Posting {
+        private int[] ids = new int[4];
+        private int size;
+
+        boolean add(int id) {
+            int at;
+            if (size == 0 || ids[size - 1] < id) {
+                at = size; // Ids mostly arrive in increasing order
+            } else {
+                at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) return false;
+                at = -at - 1;
+            }
+            if (size == ids.length) ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+            return true;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
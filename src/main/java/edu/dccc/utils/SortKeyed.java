@@ -0,0 +1,15 @@
+package edu.dccc.utils;
+
+/**
+ * Optional companion to {@link Comparable} for the sorted save in
+ * {@link CSVReaderWriter}: a type that can pack its ordering into a number
+ * lets the writer sort primitive keys instead of calling compareTo.
+ * <p>
+ * The key must agree with compareTo: {@code a.compareTo(b) < 0} exactly when
+ * {@code a.sortKey() < b.sortKey()}, and equal keys for elements that compare
+ * as equal. Keys must be in {@code [0, 2^31)}; return -1 for an element that
+ * cannot be keyed and the writer falls back to compareTo.
+ */
+public interface SortKeyed {
+    long sortKey();
+}
@@ -0,0 +1,151 @@
+package edu.dccc.utils;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel: schedules long payloads for integer ticks (for
+ * tasks: epoch days) and hands each back when time reaches its tick.
+ * <p>
+ * Level 0 has 64 slots of one tick, level 1 has 64 slots of 64 ticks, and so
+ * on for 4 levels (16.7 million ticks). An entry goes into the finest level
+ * whose slot is still ahead of the current tick. When time enters a coarse
+ * slot, its entries are re-filed one level down, so each entry is moved at
+ * most 4 times. Scheduling is O(1), and a tick costs O(1) plus the entries it
+ * fires, however many are waiting further out. Entries beyond the top level
+ * wait in an overflow list that is re-filed once per top-level turn.
+ * <p>
+ * There is no cancel: callers put a generation number in the payload and
+ * ignore entries that are out of date when they fire. Not thread-safe.
+ */
+public class TimingWheel {
+
+    /** Receives fired entries. */
+    @FunctionalInterface
+    public interface Expiry {
+        void expired(long tick, long payload);
+    }
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    // Each slot is a list of (tick, payload) pairs
+    private final long[][][] slots = new long[LEVELS][SLOTS][];
+    private final int[][] sizes = new int[LEVELS][SLOTS];
+    private long[] overflow;
+    private int overflowSize;
+    private long[] due; // Scheduled at or before the current tick: fired by the next advance
+    private int dueSize;
+    private long now;
+    private int size;
+
+    public TimingWheel(long startTick) {
+        this.now = startTick;
+    }
+
+    public long currentTick() { return now; }
+
+    /** Entries waiting to fire, stale ones included. */
+    public int size() { return size; }
+
+    /** Schedules {@code payload} for {@code tick}; a tick already reached fires on the next {@link #advanceTo}. */
+    public void schedule(long tick, long payload) {
+        size++;
+        file(tick, payload);
+    }
+
+    /**
+     * Moves time forward to {@code tick}, firing every entry whose tick has
+     * been reached. Entries scheduled for a past tick fire first, in the
+     * order they were scheduled. Costs O(1) per tick passed plus the entries
+     * fired. Moving backwards does nothing.
+     * @return how many entries fired
+     */
+    public int advanceTo(long tick, Expiry expiry) {
+        int fired = fireDue(expiry);
+        while (now < tick) {
+            now++;
+            // Entering a coarse slot: re-file its entries, coarsest first so they trickle down
+            if ((now & ((1L << (BITS * LEVELS)) - 1)) == 0) refileOverflow();
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((now & ((1L << (BITS * level)) - 1)) == 0) refile(level, (int) (now >>> (BITS * level)) & MASK);
+            }
+            fired += fire((int) now & MASK, expiry);
+            fired += fireDue(expiry); // Anything the expiry callback scheduled for now or earlier
+        }
+        return fired;
+    }
+
+    // --- Internals ---
+
+    private void file(long tick, long payload) {
+        if (tick <= now) {
+            due = append(due, dueSize, tick, payload);
+            dueSize += 2;
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((tick >>> shift) == (now >>> shift)) {
+                // Same block as now one level up, so this level's slot is still ahead
+                int slot = (int) (tick >>> (BITS * level)) & MASK;
+                slots[level][slot] = append(slots[level][slot], sizes[level][slot], tick, payload);
+                sizes[level][slot] += 2;
+                return;
+            }
+        }
+        overflow = append(overflow, overflowSize, tick, payload);
+        overflowSize += 2;
+    }
+
+    private void refile(int level, int slot) {
+        long[] entries = slots[level][slot];
+        int n = sizes[level][slot];
+        if (n == 0) return;
+        slots[level][slot] = null;
+        sizes[level][slot] = 0;
+        for (int i = 0; i < n; i += 2) file(entries[i], entries[i + 1]);
+    }
+
+    private void refileOverflow() {
+        long[] entries = overflow;
+        int n = overflowSize;
+        overflow = null;
+        overflowSize = 0;
+        for (int i = 0; i < n; i += 2) file(entries[i], entries[i + 1]);
+    }
+
+    private int fire(int slot, Expiry expiry) {
+        long[] entries = slots[0][slot];
+        int n = sizes[0][slot];
+        if (n == 0) return 0;
+        slots[0][slot] = null;
+        sizes[0][slot] = 0;
+        size -= n / 2;
+        for (int i = 0; i < n; i += 2) expiry.expired(entries[i], entries[i + 1]);
+        return n / 2;
+    }
+
+    private int fireDue(Expiry expiry) {
+        int fired = 0;
+        while (dueSize > 0) {
+            long[] entries = due;
+            int n = dueSize;
+            due = null;
+            dueSize = 0;
+            size -= n / 2;
+            for (int i = 0; i < n; i += 2) expiry.expired(entries[i], entries[i + 1]);
+            fired += n / 2;
+        }
+        return fired;
+    }
+
+    private static long[] append(long[] list, int n, long tick, long payload) {
+        if (list == null) list = new long[8];
+        else if (n + 2 > list.length) list = Arrays.copyOf(list, list.length * 2);
+        list[n] = tick;
+        list[n + 1] = payload;
+        return list;
+    }
+}
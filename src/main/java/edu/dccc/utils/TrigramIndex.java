@@ -0,0 +1,333 @@
+package edu.dccc.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Case-insensitive substring index over short texts, keyed by an int id
+ * (for tasks: the subject, keyed by taskId).
+ * <p>
+ * Every run of three characters (a trigram) maps to a sorted posting list of
+ * the ids whose text contains it. A query of three or more characters
+ * intersects the posting lists of its trigrams, smallest first, and only the
+ * few surviving candidates are checked with {@link String#contains}. Shorter
+ * queries fall back to a scan of the stored lower-case texts, which still
+ * avoids lower-casing every row per keystroke.
+ * <p>
+ * {@link #put(int, String)} and {@link #remove(int)} keep the index current
+ * as texts change. Texts are kept in a hash map keyed by id, so memory follows
+ * the number of indexed texts, not the largest id. Not thread-safe: build it
+ * on one thread, then use it from one thread.
+ * <p>
+ * Keeping a posting list sorted costs an array shift whenever an id arrives
+ * out of order or is removed. Bulk writers (a load sorted by due date, an
+ * import that replaces many texts) should wrap their writes in
+ * {@link #beginBatch()} / {@link #endBatch()}: in between, ids are appended
+ * and removals are deferred, and each touched list is sorted, merged and
+ * cleaned once at the end.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Integer, String> texts = new HashMap<>(); // id -> lower-case text
+    private final GramTable grams = new GramTable();
+    private int[][] postings = new int[64][];
+    private int[] sizes = new int[64];
+    private int[] sortedTo = new int[64]; // postings[slot][0, sortedTo) is sorted; only a batch leaves a tail
+    private long[] gramOf = new long[64];
+    private final BitSet unsorted = new BitSet();
+    private final BitSet stale = new BitSet(); // Slots with deferred removals
+    private boolean batching;
+
+    /** Number of indexed ids. */
+    public int size() { return texts.size(); }
+
+    /** Indexes {@code text} under {@code id}, replacing whatever was indexed for it before. */
+    public void put(int id, String text) {
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+
+        String normalized = normalize(text);
+        String old = texts.put(id, normalized);
+        if (old != null) {
+            if (old.equals(normalized)) return;
+            forEachGram(old, gram -> removePosting(gram, id));
+        }
+        forEachGram(normalized, gram -> addPosting(gram, id));
+    }
+
+    public void remove(int id) {
+        String old = texts.remove(id);
+        if (old == null) return;
+        forEachGram(old, gram -> removePosting(gram, id));
+    }
+
+    /**
+     * Ids whose text contains {@code query}, ignoring case. An empty query
+     * matches everything.
+     */
+    public BitSet search(String query) {
+        if (batching) throw new IllegalStateException("search() during a batch");
+        String q = normalize(query);
+        BitSet result = new BitSet();
+
+        if (q.length() < GRAM) {
+            for (Map.Entry<Integer, String> e : texts.entrySet()) {
+                if (e.getValue().contains(q)) result.set(e.getKey());
+            }
+            return result;
+        }
+
+        // Posting slots of the distinct query trigrams; a missing one means no match at all
+        long[] keys = distinctGrams(q);
+        int[] slots = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            int slot = grams.get(keys[i]);
+            if (slot < 0 || sizes[slot] == 0) return result;
+            slots[i] = slot;
+        }
+        sortBySize(slots);
+
+        int[] candidates = Arrays.copyOf(postings[slots[0]], sizes[slots[0]]);
+        int left = candidates.length;
+        for (int i = 1; i < slots.length && left > 0; i++) {
+            left = intersect(candidates, left, postings[slots[i]], sizes[slots[i]]);
+        }
+
+        // Trigrams can match out of order ("abcxbcd" has both grams of "abcd"), so confirm
+        boolean exact = q.length() == GRAM;
+        for (int i = 0; i < left; i++) {
+            int id = candidates[i];
+            if (exact || texts.get(id).contains(q)) result.set(id);
+        }
+        return result;
+    }
+
+    public void clear() {
+        texts.clear();
+        grams.clear();
+        postings = new int[64][];
+        sizes = new int[64];
+        sortedTo = new int[64];
+        gramOf = new long[64];
+        unsorted.clear();
+        stale.clear();
+    }
+
+    /** Defers posting list maintenance until {@link #endBatch()}; searches are not allowed in between. */
+    public void beginBatch() {
+        batching = true;
+    }
+
+    /** Sorts, merges and cleans every posting list the batch touched: O(list size) each. */
+    public void endBatch() {
+        batching = false;
+        for (int slot = unsorted.nextSetBit(0); slot >= 0; slot = unsorted.nextSetBit(slot + 1)) {
+            settle(slot);
+        }
+        unsorted.clear();
+        stale.clear();
+    }
+
+    // --- Trigrams ---
+
+    private static String normalize(String text) {
+        return (text == null) ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static void forEachGram(String s, LongConsumer action) {
+        for (int i = 0; i + GRAM <= s.length(); i++) action.accept(gram(s, i));
+    }
+
+    private static long[] distinctGrams(String s) {
+        long[] keys = new long[s.length() - GRAM + 1];
+        for (int i = 0; i < keys.length; i++) keys[i] = gram(s, i);
+        Arrays.sort(keys);
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (n == 0 || keys[n - 1] != keys[i]) keys[n++] = keys[i];
+        }
+        return Arrays.copyOf(keys, n);
+    }
+
+    private void sortBySize(int[] slots) {
+        // Insertion sort: a query has only a handful of trigrams
+        for (int i = 1; i < slots.length; i++) {
+            int s = slots[i];
+            int j = i - 1;
+            while (j >= 0 && sizes[slots[j]] > sizes[s]) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = s;
+        }
+    }
+
+    /** Keeps the ids of {@code a[0..n)} that also occur in {@code b[0..m)}; returns the new count. */
+    private static int intersect(int[] a, int n, int[] b, int m) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < n && from < m; i++) {
+            // b is the longer list, so binary-search forward instead of stepping through it
+            int at = Arrays.binarySearch(b, from, m, a[i]);
+            if (at >= 0) {
+                a[kept++] = a[i];
+                from = at + 1;
+            } else {
+                from = -at - 1;
+            }
+        }
+        return kept;
+    }
+
+    // --- Posting lists (sorted ids) ---
+
+    private void addPosting(long gram, int id) {
+        int slot = grams.get(gram);
+        if (slot < 0) {
+            slot = grams.size();
+            grams.put(gram, slot);
+            if (slot == postings.length) {
+                postings = Arrays.copyOf(postings, slot * 2);
+                sizes = Arrays.copyOf(sizes, slot * 2);
+                sortedTo = Arrays.copyOf(sortedTo, slot * 2);
+                gramOf = Arrays.copyOf(gramOf, slot * 2);
+            }
+            postings[slot] = new int[4];
+            gramOf[slot] = gram;
+        }
+        int[] list = postings[slot];
+        int size = sizes[slot];
+
+        int at;
+        if (size == 0 || list[size - 1] < id) {
+            at = size; // New ids are usually the largest, so this is the common case
+            if (!unsorted.get(slot)) sortedTo[slot] = size + 1;
+        } else if (batching) {
+            if (list[size - 1] == id) return; // The gram occurs twice in this text
+            at = size; // Out of order: sorted in endBatch()
+            unsorted.set(slot);
+        } else {
+            at = Arrays.binarySearch(list, 0, size, id);
+            if (at >= 0) return; // The gram occurs twice in this text
+            at = -at - 1;
+        }
+        if (size == list.length) postings[slot] = list = Arrays.copyOf(list, size + (size >> 1) + 1);
+        System.arraycopy(list, at, list, at + 1, size - at);
+        list[at] = id;
+        sizes[slot] = size + 1;
+        if (!unsorted.get(slot)) sortedTo[slot] = size + 1;
+    }
+
+    private void removePosting(long gram, int id) {
+        int slot = grams.get(gram);
+        if (slot < 0) return;
+        if (batching) {
+            // Leave the id in place; endBatch() drops ids whose text no longer has the gram
+            stale.set(slot);
+            unsorted.set(slot);
+            return;
+        }
+        int[] list = postings[slot];
+        int size = sizes[slot];
+        int at = Arrays.binarySearch(list, 0, size, id);
+        if (at < 0) return; // Already removed: the gram occurred twice in the old text
+        System.arraycopy(list, at + 1, list, at, size - at - 1);
+        sizes[slot] = size - 1;
+        sortedTo[slot] = size - 1;
+    }
+
+    /** Merges the sorted head with the sorted tail, dropping duplicates and (if stale) dead ids. */
+    private void settle(int slot) {
+        int[] list = postings[slot];
+        int size = sizes[slot];
+        int mid = sortedTo[slot];
+        Arrays.sort(list, mid, size);
+
+        String gram = stale.get(slot) ? gramText(gramOf[slot]) : null;
+        int[] merged = new int[Math.max(4, size)];
+        int n = 0;
+        int i = 0;
+        int j = mid;
+        while (i < mid || j < size) {
+            int id = (j >= size || (i < mid && list[i] <= list[j])) ? list[i++] : list[j++];
+            if (n > 0 && merged[n - 1] == id) continue;
+            if (gram != null) {
+                String text = texts.get(id);
+                if (text == null || !text.contains(gram)) continue;
+            }
+            merged[n++] = id;
+        }
+        postings[slot] = merged;
+        sizes[slot] = n;
+        sortedTo[slot] = n;
+    }
+
+    private static String gramText(long gram) {
+        return new String(new char[] {(char) (gram >>> 32), (char) (gram >>> 16), (char) gram});
+    }
+
+    /** Open-addressing map from a packed trigram to its posting slot. Grams are never removed. */
+    private static final class GramTable {
+        private long[] keys = new long[256];
+        private int[] values = new int[256]; // posting slot + 1; 0 marks an empty bucket
+        private int count;
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        int size() { return count; }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                int v = values[i];
+                if (v == 0) return -1;
+                if (keys[i] == key) return v - 1;
+            }
+        }
+
+        void put(long key, int slot) {
+            if ((count + 1) * 2 > keys.length) grow();
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (values[i] == 0) {
+                    keys[i] = key;
+                    values[i] = slot + 1;
+                    count++;
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = slot + 1;
+                    return;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != 0) put(oldKeys[i], oldValues[i] - 1);
+            }
+        }
+
+        void clear() {
+            Arrays.fill(values, 0);
+            count = 0;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 module edu.dccc.taskmanagerapp {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
 
 
     opens edu.dccc.taskmanagerapp to javafx.fxml;